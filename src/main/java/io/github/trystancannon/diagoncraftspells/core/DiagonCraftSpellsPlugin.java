@@ -24,16 +24,36 @@
 package io.github.trystancannon.diagoncraftspells.core;
 
 import io.github.trystancannon.diagoncraftspells.event.KnownSpellInventoryListener;
+import io.github.trystancannon.diagoncraftspells.event.PlayerInteractRouter;
+import io.github.trystancannon.diagoncraftspells.event.SpellEventBus;
+import io.github.trystancannon.diagoncraftspells.event.SpellEventSubscriber;
 import io.github.trystancannon.diagoncraftspells.event.SpellCastListener;
+import io.github.trystancannon.diagoncraftspells.event.SpellProjectileRouter;
 import io.github.trystancannon.diagoncraftspells.event.SpellLearnedEvent;
 import io.github.trystancannon.diagoncraftspells.file.Loader;
 import io.github.trystancannon.diagoncraftspells.file.Saver;
 import io.github.trystancannon.diagoncraftspells.item.SpellBook;
-import io.github.trystancannon.diagoncraftspells.item.SpellBookActivateListener;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.spell.AdmissionPolicy;
+import io.github.trystancannon.diagoncraftspells.spell.ChunkBoundaryPolicy;
+import io.github.trystancannon.diagoncraftspells.spell.ProjectileAdmissionController;
+import io.github.trystancannon.diagoncraftspells.spell.ProjectileEngine;
+import io.github.trystancannon.diagoncraftspells.spell.ProjectileMode;
+import io.github.trystancannon.diagoncraftspells.spell.ProjectileSpell;
+import io.github.trystancannon.diagoncraftspells.spell.ProjectileTrailRenderer;
 import io.github.trystancannon.diagoncraftspells.spell.Spell;
-import io.github.trystancannon.diagoncraftspells.event.SpellCastEventGenerator;
+import io.github.trystancannon.diagoncraftspells.spell.SpellProjectile;
 import io.github.trystancannon.diagoncraftspells.spell.SpellManager;
+import io.github.trystancannon.diagoncraftspells.spell.effect.BlockRestorer;
+import io.github.trystancannon.diagoncraftspells.spell.effect.EffectLifecycleMonitor;
+import io.github.trystancannon.diagoncraftspells.spell.effect.EffectTable;
+import io.github.trystancannon.diagoncraftspells.spell.effect.EffectTeardown;
+import io.github.trystancannon.diagoncraftspells.spell.effect.EffectListenerRegistry;
+import io.github.trystancannon.diagoncraftspells.spell.effect.EffectTimingWheel;
+import io.github.trystancannon.diagoncraftspells.spell.effect.PeriodicEffectScheduler;
+import io.github.trystancannon.diagoncraftspells.spell.effect.MovementConstraintService;
+import io.github.trystancannon.diagoncraftspells.spell.effect.MuteRegistry;
+import io.github.trystancannon.diagoncraftspells.spell.effect.ProtectedBlockIndex;
 import io.github.trystancannon.diagoncraftspells.wand.Wand;
 import io.github.trystancannon.diagoncraftspells.wand.Wand.WandType;
 
@@ -45,8 +65,10 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.UUID;
 import java.util.logging.Level;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -117,12 +139,32 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
     private SpellManager spellManager;
     
     /**
-     * The object which generates all <code>SpellCastEvent</code>s.
+     * The object which handles every interaction, generating all
+     * <code>SpellCastEvent</code>s and teaching spells from Spell Books.
      * 
      * When a wizard interacts with their wand, this object will spawn the event
-     * that allows the spell to manifest an effect in the world.
+     * that allows the spell to manifest an effect in the world. When they right
+     * click on a spell book for a spell they do not currently know, it adds the
+     * spell to their known spell list.
      */
-    private static final SpellCastEventGenerator spellCastEventGenerator = new SpellCastEventGenerator();
+    private static final PlayerInteractRouter interactRouter = new PlayerInteractRouter();
+    
+    /**
+     * The bus which carries the plugin's own events to the parts of the plugin
+     * which act on them, handing them to Bukkit only when other plugins listen.
+     */
+    private static final SpellEventBus eventBus = new SpellEventBus();
+    
+    /**
+     * Counts how spell effects move through their lives and the mistakes
+     * made along the way.
+     */
+    private static final EffectLifecycleMonitor effectLifecycle = new EffectLifecycleMonitor();
+    
+    /**
+     * The spell effects on every living entity, wizard or not.
+     */
+    private static final EffectTable effectTable = new EffectTable();
     
     /**
      * The object which catches and handles all <code>SpellCastEvent</code>events.
@@ -136,12 +178,32 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
     private static final KnownSpellInventoryListener knownSpellInventoryListener = new KnownSpellInventoryListener();
     
     /**
-     * The object which catches and handles all interactions with Spell Books.
-     * 
-     * For example, this object will add a spell to a wizard's known spell
-     * list if they right click on a spell book for a spell they do not currently know.
+     * The object which catches all events concerning spell projectiles and
+     * routes them to the spell which fired each projectile.
+     */
+    private static final SpellProjectileRouter projectileRouter = new SpellProjectileRouter();
+    
+    /**
+     * The object which catches all events spell effects care about and hands
+     * each to the live effects on the entity or block it concerns.
+     */
+    private static final EffectListenerRegistry effectListenerRegistry = new EffectListenerRegistry();
+    
+    /**
+     * The players who may not chat, read by the server's chat threads.
+     */
+    private static final MuteRegistry muteRegistry = new MuteRegistry();
+    
+    /**
+     * The blocks placed by spell effects, which the world must leave alone
+     * until each effect ends.
+     */
+    private static final ProtectedBlockIndex protectedBlocks = new ProtectedBlockIndex();
+    
+    /**
+     * Puts back the blocks spell effects changed, in batches during teardowns.
      */
-    private static final SpellBookActivateListener spellBookActivateListener = new SpellBookActivateListener();
+    private static final BlockRestorer blockRestorer = new BlockRestorer();
     
     /**
      * The object through which disguises are controlled. This is used for disguise
@@ -149,6 +211,34 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
      */
     private static DisguiseCraftAPI disguiseApi;
     
+    /**
+     * The engine which advances all spell projectiles in flight from a single
+     * repeating task.
+     */
+    private static ProjectileEngine projectileEngine;
+    
+    /**
+     * The single handler behind every spell effect which constrains how a
+     * player moves.
+     */
+    private static MovementConstraintService movementConstraints;
+    
+    /**
+     * The wheel which removes spell effects once their life spans have passed.
+     */
+    private static EffectTimingWheel effectTimingWheel;
+    
+    /**
+     * The scheduler which runs spell effects that repeat.
+     */
+    private static PeriodicEffectScheduler periodicEffects;
+    
+    /**
+     * Ends spell effects in bulk when players leave, worlds unload and the
+     * plugin is disabled.
+     */
+    private static EffectTeardown effectTeardown;
+    
     /**
      * Loads all of the wizard profiles from the plugin's data folder, storing
      * them into the <code>wizards</code> <code>HashMap</code>.
@@ -157,6 +247,14 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
      */
     @Override
     public void onEnable() {
+        // Start the projectile engine before any spell can fire a projectile.
+        projectileEngine = new ProjectileEngine(this);
+        projectileEngine.start();
+        movementConstraints = new MovementConstraintService(this);
+        effectTimingWheel = new EffectTimingWheel(this);
+        periodicEffects = new PeriodicEffectScheduler(this);
+        effectTeardown = new EffectTeardown(this);
+        
         // Initialize the spell manager.
         spellManager = new SpellManager(this);
         
@@ -165,6 +263,14 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
             getDataFolder().mkdirs();
         }
         
+        // Load the configuration, writing the default one if there is none.
+        saveDefaultConfig();
+        loadProjectileSettings();
+        periodicEffects.setTickBudgetMillis(getConfig().getDouble("effects.periodic.tick-budget-ms", PeriodicEffectScheduler.DEFAULT_TICK_BUDGET_MILLIS));
+        
+        // Apply the block restores left waiting when the plugin was last disabled.
+        blockRestorer.load(getDataFolder().getPath() + "/" + BlockRestorer.FILE_NAME);
+        
         // Load apis.
         disguiseApi = DisguiseCraft.getAPI();
         getLogger().log(Level.INFO, "DisguiseCraft was{0}fround.", (disguiseApi != null ? " " : " not "));
@@ -175,10 +281,44 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
         
         // Register the plugin and its event generators for events.
         getServer().getPluginManager().registerEvents(this, this);
-        getServer().getPluginManager().registerEvents(spellCastEventGenerator, this);
-        getServer().getPluginManager().registerEvents(spellCastListener, this);
+        getServer().getPluginManager().registerEvents(interactRouter, this);
         getServer().getPluginManager().registerEvents(knownSpellInventoryListener, this);
-        getServer().getPluginManager().registerEvents(spellBookActivateListener, this);
+        getServer().getPluginManager().registerEvents(projectileRouter, this);
+        getServer().getPluginManager().registerEvents(effectListenerRegistry, this);
+        
+        // Subscribe the plugin and its listeners to the plugin's own events.
+        spellCastListener.subscribe(eventBus);
+        knownSpellInventoryListener.subscribe(eventBus);
+        projectileRouter.subscribe(eventBus);
+        effectListenerRegistry.subscribe(eventBus);
+        eventBus.subscribe(SpellLearnedEvent.class, new SpellEventSubscriber<SpellLearnedEvent>() {
+            @Override
+            public void handle(SpellLearnedEvent learn) {
+                onSpellLearned(learn);
+            }
+        });
+        getServer().getPluginManager().registerEvents(movementConstraints, this);
+        getServer().getPluginManager().registerEvents(muteRegistry, this);
+        getServer().getPluginManager().registerEvents(protectedBlocks, this);
+        getServer().getPluginManager().registerEvents(effectTable, this);
+        getServer().getPluginManager().registerEvents(effectTeardown, this);
+        getServer().getPluginManager().registerEvents(blockRestorer, this);
+    }
+    
+    /**
+     * Ends every active spell effect, restoring the players and blocks they
+     * changed, so a reload or shutdown leaves nothing behind. Blocks in
+     * unloaded chunks are saved to be restored once their chunks load.
+     */
+    @Override
+    public void onDisable() {
+        if (effectTeardown != null) {
+            effectTeardown.endAll();
+        }
+        
+        if (!blockRestorer.save()) {
+            getLogger().log(Level.WARNING, "Could not save {0} block restores waiting for their chunks.", blockRestorer.getDeferredCount());
+        }
     }
     
     /**
@@ -212,7 +352,6 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
      * 
      * @param learn
      */
-    @EventHandler
     public void onSpellLearned(SpellLearnedEvent learn) {
         Saver.saveWizardProfile(getDataFolder().getAbsolutePath(), learn.getWizard());
     }
@@ -225,6 +364,113 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
         return disguiseApi;
     }
     
+    /**
+     * @return
+     *          The engine which advances all spell projectiles in flight.
+     */
+    public static ProjectileEngine getProjectileEngine() {
+        return projectileEngine;
+    }
+    
+    /**
+     * @return
+     *          The bus which carries the plugin's own events.
+     */
+    public static SpellEventBus getEventBus() {
+        return eventBus;
+    }
+    
+    /**
+     * @return
+     *          The router which hands projectile events to the spell which
+     *          fired each projectile.
+     */
+    public static SpellProjectileRouter getProjectileRouter() {
+        return projectileRouter;
+    }
+    
+    /**
+     * @return
+     *          The registry through which spell effects handle events.
+     */
+    public static EffectListenerRegistry getEffectListenerRegistry() {
+        return effectListenerRegistry;
+    }
+    
+    /**
+     * @return
+     *          The registry of players who may not chat.
+     */
+    public static MuteRegistry getMuteRegistry() {
+        return muteRegistry;
+    }
+    
+    /**
+     * @return
+     *          The index of blocks placed by spell effects.
+     */
+    public static ProtectedBlockIndex getProtectedBlocks() {
+        return protectedBlocks;
+    }
+    
+    /**
+     * @return
+     *          The restorer which puts back the blocks spell effects changed.
+     */
+    public static BlockRestorer getBlockRestorer() {
+        return blockRestorer;
+    }
+    
+    /**
+     * @return
+     *          The teardown which ends spell effects in bulk.
+     */
+    public static EffectTeardown getEffectTeardown() {
+        return effectTeardown;
+    }
+    
+    /**
+     * @return
+     *          The monitor which counts how spell effects move through their
+     *          lives.
+     */
+    public static EffectLifecycleMonitor getEffectLifecycle() {
+        return effectLifecycle;
+    }
+    
+    /**
+     * @return
+     *          The table of spell effects on every living entity.
+     */
+    public static EffectTable getEffectTable() {
+        return effectTable;
+    }
+    
+    /**
+     * @return
+     *          The wheel which removes spell effects once their life spans have
+     *          passed.
+     */
+    public static EffectTimingWheel getEffectTimingWheel() {
+        return effectTimingWheel;
+    }
+    
+    /**
+     * @return
+     *          The scheduler which runs spell effects that repeat.
+     */
+    public static PeriodicEffectScheduler getPeriodicEffects() {
+        return periodicEffects;
+    }
+    
+    /**
+     * @return
+     *          The service which constrains how players affected by spells move.
+     */
+    public static MovementConstraintService getMovementConstraints() {
+        return movementConstraints;
+    }
+    
     /**
      * @param playerId
      *              Unique ID of the player represented by the desired <code>Wizard</code> object.
@@ -255,7 +501,20 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
      */
     private void loadWizardProfiles() {
         for (File wizardProfile : getDataFolder().listFiles()) {
-            UUID playerId = UUID.fromString(wizardProfile.getName().replace(".txt", ""));
+            // The data folder also holds the configuration.
+            if (!wizardProfile.isFile() || !wizardProfile.getName().endsWith(".txt")) {
+                continue;
+            }
+            
+            UUID playerId;
+            
+            try {
+                playerId = UUID.fromString(wizardProfile.getName().replace(".txt", ""));
+            } catch (IllegalArgumentException notProfile) {
+                getLogger().log(Level.WARNING, "Skipped {0}, which is not named for a wizard.", wizardProfile.getName());
+                continue;
+            }
+            
             Wizard wizard = Loader.loadWizardProfile(playerId, wizardProfile.getAbsolutePath());
             
             if (wizard != null) {
@@ -264,6 +523,72 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
         }
     }
     
+    /**
+     * Applies the projectile settings in the plugin's configuration to every
+     * registered <code>ProjectileSpell</code>. Settings under a spell's name in
+     * "projectiles.spells" override the defaults for that spell. Spells which
+     * resolve their projectiles instantly by default are not given the default
+     * mode.
+     */
+    private void loadProjectileSettings() {
+        ProjectileMode defaultMode = readEnum("projectiles.mode", ProjectileMode.class, ProjectileMode.ARROW);
+        ChunkBoundaryPolicy chunkBoundaryPolicy = readEnum("projectiles.chunk-boundary", ChunkBoundaryPolicy.class, ChunkBoundaryPolicy.DIE);
+        double defaultRange = getConfig().getDouble("projectiles.range", SpellProjectile.DEFAULT_RANGE);
+        ProjectileTrailRenderer trailRenderer = projectileEngine.getTrailRenderer();
+        
+        trailRenderer.setViewDistance(getConfig().getDouble("projectiles.trail.view-distance", ProjectileTrailRenderer.DEFAULT_VIEW_DISTANCE));
+        trailRenderer.setFullDetailDistance(Math.max(1, getConfig().getDouble("projectiles.trail.full-detail-distance", ProjectileTrailRenderer.DEFAULT_FULL_DETAIL_DISTANCE)));
+        trailRenderer.setParticleBudget(Math.max(0, getConfig().getInt("projectiles.trail.particle-budget", ProjectileTrailRenderer.DEFAULT_PARTICLE_BUDGET)));
+        
+        ProjectileAdmissionController admissionController = projectileEngine.getAdmissionController();
+        
+        admissionController.setWizardLimit(getConfig().getInt("projectiles.limits.per-wizard", ProjectileAdmissionController.DEFAULT_WIZARD_LIMIT));
+        admissionController.setWorldLimit(getConfig().getInt("projectiles.limits.per-world", ProjectileAdmissionController.DEFAULT_WORLD_LIMIT));
+        admissionController.setGlobalLimit(getConfig().getInt("projectiles.limits.global", ProjectileAdmissionController.DEFAULT_GLOBAL_LIMIT));
+        admissionController.setPolicy(readEnum("projectiles.limits.policy", AdmissionPolicy.class, AdmissionPolicy.REJECT));
+        
+        for (Spell spell : SpellManager.getRegisteredSpells().values()) {
+            if (spell instanceof ProjectileSpell) {
+                ProjectileSpell projectileSpell = (ProjectileSpell) spell;
+                String spellPath = "projectiles.spells." + spell.getName();
+                // Spells built to resolve instantly keep doing so unless
+                // configured otherwise by name.
+                ProjectileMode spellMode = projectileSpell.getProjectileMode() == ProjectileMode.HITSCAN ? ProjectileMode.HITSCAN : defaultMode;
+                
+                projectileSpell.setProjectileMode(readEnum(spellPath + ".mode", ProjectileMode.class, spellMode));
+                projectileSpell.setRange(getConfig().getDouble(spellPath + ".range", defaultRange));
+                projectileSpell.setChunkBoundaryPolicy(chunkBoundaryPolicy);
+            }
+        }
+    }
+    
+    /**
+     * @param path
+     *          The configuration path of the value.
+     * @param type
+     *          The enum the value names a constant of.
+     * @param fallback
+     *          The constant used if the value is missing or names no constant.
+     * @return
+     *          The constant named by the value, ignoring case, or the fallback.
+     */
+    private <E extends Enum<E>> E readEnum(String path, Class<E> type, E fallback) {
+        String name = getConfig().getString(path);
+        
+        if (name == null) {
+            return fallback;
+        }
+        
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(name)) {
+                return constant;
+            }
+        }
+        
+        getLogger().log(Level.WARNING, "Unknown value \"{0}\" at {1}. Using {2}.", new Object[] {name, path, fallback});
+        return fallback;
+    }
+    
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (sender.hasPermission("diagoncraftspells.spells") && sender instanceof Player && command.getName().equalsIgnoreCase("spells") && args.length > 0) {
@@ -329,6 +654,9 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
                 player.setFlySpeed(0.1F);
                 player.setAllowFlight(player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR);
                 player.sendMessage(ChatColor.ITALIC + "Updated fly speed to 0.1F and walk speed to 0.2F.");
+            // /spells stats -> Report the load the plugin is putting on the server.
+            } else if (commandName.equalsIgnoreCase("stats") && player.hasPermission("diagoncraftspells.stats")) {
+                sendStats(player);
             // Send usage.
             } else {
                 sendUsage(sender);
@@ -354,6 +682,95 @@ public class DiagonCraftSpellsPlugin extends JavaPlugin implements Listener {
         receiver.sendMessage(applyCommandUsageColor("/spells book [spell name]", "Gives the player the spell book for the spell with the given name."));
         receiver.sendMessage(applyCommandUsageColor("/spells list", "Lists all of the registered spells for this version of the plugin."));
         receiver.sendMessage(applyCommandUsageColor("/spells fixfly", "Resets the player's fly speed to the default. Use if you are unable to move in flight after to a server reload or crash."));
+        receiver.sendMessage(applyCommandUsageColor("/spells stats", "Reports the number of spell projectiles in flight and the time spent advancing them."));
+    }
+    
+    /**
+     * Sends the current load statistics of the plugin to the receiver.
+     * 
+     * @param receiver 
+     */
+    public static void sendStats(CommandSender receiver) {
+        receiver.sendMessage(ChatColor.LIGHT_PURPLE + "------ " + ChatColor.GOLD + "Diagon Craft Spells Stats" + ChatColor.LIGHT_PURPLE + " ------");
+        receiver.sendMessage(ChatColor.AQUA + "Projectiles in flight: " + ChatColor.WHITE + projectileEngine.getActiveCount());
+        
+        ProjectileAdmissionController admissionController = projectileEngine.getAdmissionController();
+        
+        receiver.sendMessage(ChatColor.AQUA + "Projectile limits: " + ChatColor.WHITE + admissionController.getWizardLimit()
+                             + ChatColor.AQUA + " per wizard, " + ChatColor.WHITE + admissionController.getWorldLimit()
+                             + ChatColor.AQUA + " per world, " + ChatColor.WHITE + admissionController.getGlobalLimit()
+                             + ChatColor.AQUA + " in total (" + ChatColor.WHITE + admissionController.getPolicy() + ChatColor.AQUA + ")");
+        
+        for (World world : Bukkit.getWorlds()) {
+            int worldCount = admissionController.getWorldCount(world.getUID());
+            
+            if (worldCount > 0) {
+                receiver.sendMessage(ChatColor.AQUA + "  In " + world.getName() + ": " + ChatColor.WHITE + worldCount);
+            }
+        }
+        
+        receiver.sendMessage(ChatColor.AQUA + "Most projectiles from one wizard: " + ChatColor.WHITE + admissionController.getBusiestWizardCount()
+                             + ChatColor.AQUA + ", peak: " + ChatColor.WHITE + admissionController.getPeakWizardCount());
+        receiver.sendMessage(ChatColor.AQUA + "Projectile casts rejected: " + ChatColor.WHITE + admissionController.getRejectedCount()
+                             + ChatColor.AQUA + ", projectiles evicted: " + ChatColor.WHITE + admissionController.getEvictedCount());
+        receiver.sendMessage(ChatColor.AQUA + "Projectiles advanced last tick: " + ChatColor.WHITE + projectileEngine.getLastTickCount()
+                             + ChatColor.AQUA + " in " + ChatColor.WHITE + projectileEngine.getLastTickNanos() / 1E6 + " ms");
+        receiver.sendMessage(ChatColor.AQUA + "Bytes allocated advancing projectiles last tick: " + ChatColor.WHITE
+                             + (projectileEngine.getLastTickAllocatedBytes() != -1 ? projectileEngine.getLastTickAllocatedBytes() : "unavailable"));
+        receiver.sendMessage(ChatColor.AQUA + "Trail points last tick: " + ChatColor.WHITE + projectileEngine.getTrailRenderer().getLastPointCount()
+                             + ChatColor.AQUA + ", particles sent: " + ChatColor.WHITE + projectileEngine.getTrailRenderer().getLastSentCount()
+                             + ChatColor.AQUA + ", over budget: " + ChatColor.WHITE + projectileEngine.getTrailRenderer().getLastOverBudgetCount());
+        receiver.sendMessage(ChatColor.AQUA + "Projectile states pooled: " + ChatColor.WHITE + projectileEngine.getPooledStateCount()
+                             + ChatColor.AQUA + ", created: " + ChatColor.WHITE + projectileEngine.getCreatedStateCount()
+                             + ChatColor.AQUA + ", reused: " + ChatColor.WHITE + projectileEngine.getReusedStateCount());
+        receiver.sendMessage(ChatColor.AQUA + "Spell events posted: " + ChatColor.WHITE + eventBus.getPostedCount()
+                             + ChatColor.AQUA + ", handed to other plugins: " + ChatColor.WHITE + eventBus.getBridgedCount());
+        receiver.sendMessage(ChatColor.AQUA + "Projectiles routed to spells: " + ChatColor.WHITE + projectileRouter.getRouteCount());
+        receiver.sendMessage(ChatColor.AQUA + "Spell effect event handlers: " + ChatColor.WHITE + effectListenerRegistry.getHandlerCount()
+                             + ChatColor.AQUA + ", for " + ChatColor.WHITE + effectListenerRegistry.getKeyCount() + ChatColor.AQUA + " entities");
+        receiver.sendMessage(ChatColor.AQUA + "Spell effects active: " + ChatColor.WHITE + effectLifecycle.getActiveCount()
+                             + ChatColor.AQUA + ", started: " + ChatColor.WHITE + effectLifecycle.getStartedCount()
+                             + ChatColor.AQUA + ", ended: " + ChatColor.WHITE + effectLifecycle.getEndedCount()
+                             + ChatColor.AQUA + ", merged into one already present: " + ChatColor.WHITE + effectLifecycle.getMergedCount());
+        receiver.sendMessage(ChatColor.AQUA + "Spell effects on entities: " + ChatColor.WHITE + effectTable.getEffectCount()
+                             + ChatColor.AQUA + ", entities affected: " + ChatColor.WHITE + effectTable.getEntityCount()
+                             + ChatColor.AQUA + ", cleared by death or unload: " + ChatColor.WHITE + effectTable.getClearedCount());
+        receiver.sendMessage(ChatColor.AQUA + "Spell effect teardowns: " + ChatColor.WHITE + effectTeardown.getTeardownCount()
+                             + ChatColor.AQUA + ", effects ended: " + ChatColor.WHITE + effectTeardown.getEndedCount()
+                             + ChatColor.AQUA + ", last took: " + ChatColor.WHITE + effectTeardown.getLastTeardownNanos() / 1E6 + " ms");
+        receiver.sendMessage(ChatColor.AQUA + "Blocks restored: " + ChatColor.WHITE + blockRestorer.getRestoredCount()
+                             + ChatColor.AQUA + ", in batches: " + ChatColor.WHITE + blockRestorer.getBatchedCount()
+                             + ChatColor.AQUA + ", last batch: " + ChatColor.WHITE + blockRestorer.getLastBatchSize());
+        receiver.sendMessage(ChatColor.AQUA + "Block restores waiting for their chunks: " + ChatColor.WHITE + blockRestorer.getDeferredCount()
+                             + ChatColor.AQUA + ", applied as chunks loaded: " + ChatColor.WHITE + blockRestorer.getAppliedOnLoadCount());
+        receiver.sendMessage(ChatColor.AQUA + "Spell effect mistakes - started twice: " + ChatColor.WHITE + effectLifecycle.getRedundantStartCount()
+                             + ChatColor.AQUA + ", removed twice: " + ChatColor.WHITE + effectLifecycle.getDoubleRemovalCount()
+                             + ChatColor.AQUA + ", tasks cancelled at end: " + ChatColor.WHITE + effectLifecycle.getCancelledTaskCount()
+                             + ChatColor.AQUA + ", scheduled after end: " + ChatColor.WHITE + effectLifecycle.getLateScheduleCount()
+                             + ChatColor.AQUA + ", leaked: " + ChatColor.WHITE + effectLifecycle.getLeakedCount());
+        receiver.sendMessage(ChatColor.AQUA + "Spell effects waiting to expire: " + ChatColor.WHITE + effectTimingWheel.getPendingCount()
+                             + ChatColor.AQUA + ", expired: " + ChatColor.WHITE + effectTimingWheel.getExpiredCount());
+        receiver.sendMessage(ChatColor.AQUA + "Repeating spell effects: " + ChatColor.WHITE + periodicEffects.getSize()
+                             + ChatColor.AQUA + ", last tick: " + ChatColor.WHITE + periodicEffects.getLastTickNanos() / 1E6 + " ms"
+                             + ChatColor.AQUA + " of " + ChatColor.WHITE + periodicEffects.getTickBudgetMillis() + " ms"
+                             + ChatColor.AQUA + ", runs deferred: " + ChatColor.WHITE + periodicEffects.getDeferredCount());
+        
+        for (PeriodicEffectScheduler.PeriodGroup group : periodicEffects.getGroups()) {
+            receiver.sendMessage(ChatColor.AQUA + "  Every " + ChatColor.WHITE + group.getPeriod() + ChatColor.AQUA + " ticks: " + ChatColor.WHITE + group.getSize()
+                                 + ChatColor.AQUA + " effects, last run: " + ChatColor.WHITE + group.getLastRunNanos() / 1E6 + " ms"
+                                 + ChatColor.AQUA + ", total: " + ChatColor.WHITE + group.getTotalRunNanos() / 1E6 + " ms"
+                                 + ChatColor.AQUA + " over " + ChatColor.WHITE + group.getRunCount() + ChatColor.AQUA + " runs");
+        }
+        
+        receiver.sendMessage(ChatColor.AQUA + "Movement constraints: " + ChatColor.WHITE + movementConstraints.getConstraintCount()
+                             + ChatColor.AQUA + ", teleports: " + ChatColor.WHITE + movementConstraints.getTeleportCount()
+                             + ChatColor.AQUA + ", coalesced: " + ChatColor.WHITE + movementConstraints.getCoalescedCount()
+                             + ChatColor.AQUA + ", moves ignored: " + ChatColor.WHITE + movementConstraints.getIgnoredMoveCount());
+        receiver.sendMessage(ChatColor.AQUA + "Players muted: " + ChatColor.WHITE + muteRegistry.getMutedCount());
+        receiver.sendMessage(ChatColor.AQUA + "Blocks protected by spell effects: " + ChatColor.WHITE + protectedBlocks.getProtectedCount()
+                             + ChatColor.AQUA + ", events cancelled: " + ChatColor.WHITE + protectedBlocks.getCancelledCount());
+        receiver.sendMessage(ChatColor.AQUA + "Projectiles ended at chunk boundaries: " + ChatColor.WHITE + projectileEngine.getChunkBoundaryEndCount()
+                             + ChatColor.AQUA + ", by range: " + ChatColor.WHITE + projectileEngine.getRangeEndCount());
     }
     
     /**
@@ -45,19 +45,35 @@ import org.bukkit.inventory.ItemStack;
  *        known spell inventory.
  *
  * Each <code>KnownSpellInventoryListener</code> instance needs to be
- * explicitly registered for events because it does not do this itself.
+ * explicitly registered for events, and subscribed to the plugin's
+ * <code>SpellEventBus</code> through <code>subscribe</code>, because it does
+ * not do this itself.
  * 
  * @author Trystan Cannon
  */
 public class KnownSpellInventoryListener implements Listener {
     
+    /**
+     * Subscribes this listener to the inventory open events posted through
+     * the given bus.
+     * 
+     * @param bus 
+     */
+    public void subscribe(SpellEventBus bus) {
+        bus.subscribe(KnownSpellInventoryOpenEvent.class, new SpellEventSubscriber<KnownSpellInventoryOpenEvent>() {
+            @Override
+            public void handle(KnownSpellInventoryOpenEvent open) {
+                onKnownSpellInventoryOpen(open);
+            }
+        });
+    }
+    
     /**
      * Opens the Known Spells Inventory for the wizard who right clicked on their
      * wand.
      * 
      * @param open
      */
-    @EventHandler
     public void onKnownSpellInventoryOpen(KnownSpellInventoryOpenEvent open) {
         KnownSpellsGUI.openInventory(open.getWizard(), 1);
     }
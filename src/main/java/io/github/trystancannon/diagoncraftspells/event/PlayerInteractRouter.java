@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.event;
+
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
+import io.github.trystancannon.diagoncraftspells.item.SpellBook;
+import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.spell.Spell;
+import io.github.trystancannon.diagoncraftspells.wand.Wand;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * The Player Interact Router handles every <code>PlayerInteractEvent</code>
+ * for the plugin. It sorts the item in hand into a wand, a spell book or
+ * anything else, then acts on it.
+ * 
+ * Interactions with items of any other material are dismissed by a single
+ * material check. Otherwise, the item's meta data, which is copied each time
+ * it is fetched, is fetched once.
+ * 
+ * A wand generates the following events:
+ *      - <code>SpellCastOnBlockEvent</code> (left click on a block)
+ *      - <code>SpellCastOnAirEvent</code> (left click with no block in reach)
+ *      - <code>KnownSpellInventoryOpenEvent</code> (right click)
+ * 
+ * A spell book teaches the wizard its spell, unless they already know it, and
+ * generates a <code>SpellLearnedEvent</code>.
+ * 
+ * These events are posted through the plugin's <code>SpellEventBus</code>.
+ * 
+ * Each instance of <code>PlayerInteractRouter</code> MUST be registered
+ * explicitly for events; it does not do this itself.
+ * 
+ * @author Trystan Cannon
+ */
+public final class PlayerInteractRouter implements Listener {
+    
+    @EventHandler
+    public void onPlayerInteract(PlayerInteractEvent interaction) {
+        ItemStack item = interaction.getItem();
+        
+        if (item == null) {
+            return;
+        }
+        
+        Material type = item.getType();
+        
+        if ((type != Wand.MATERIAL && type != SpellBook.MATERIAL) || !item.hasItemMeta()) {
+            return;
+        }
+        
+        ItemMeta meta = item.getItemMeta();
+        
+        if (type == Wand.MATERIAL && Wand.isWandMeta(meta)) {
+            useWand(interaction);
+        } else if (type == SpellBook.MATERIAL && SpellBook.isSpellBookMeta(meta)) {
+            useSpellBook(interaction, meta);
+        }
+    }
+    
+    /**
+     * Generates events for the following situations:
+     *      - A spell is cast on a block (block targeted when the player left clicks with their wand).
+     *      - A spell is cast into the air (no block targeted when the player casts).
+     *      - The player right clicks to open their spell inventory.
+     * 
+     * @param interaction 
+     */
+    private void useWand(PlayerInteractEvent interaction) {
+        Action action = interaction.getAction();
+        Wizard caster = DiagonCraftSpellsPlugin.getWizard(interaction.getPlayer().getUniqueId());
+        
+        if (caster == null) {
+            return;
+        }
+        
+        Spell selectedSpell = caster.getSelectedSpell();
+        
+        // Spell cast on a particular block.
+        if (action == Action.LEFT_CLICK_BLOCK) {
+            DiagonCraftSpellsPlugin.getEventBus().post(new SpellCastOnBlockEvent(caster, selectedSpell, interaction.getClickedBlock(), interaction.getBlockFace()));
+        // Spell cast without a block in reach.
+        } else if (action == Action.LEFT_CLICK_AIR) {
+            DiagonCraftSpellsPlugin.getEventBus().post(new SpellCastOnAirEvent(caster, selectedSpell));
+        // Player wants to open their spell inventory.
+        } else if (action == Action.RIGHT_CLICK_AIR || action == Action.RIGHT_CLICK_BLOCK) {
+            DiagonCraftSpellsPlugin.getEventBus().post(new KnownSpellInventoryOpenEvent(caster));
+        }
+    }
+    
+    /**
+     * Teaches the wizard the spell in the book in their hand, removing the
+     * book, or reminds them that they already know it.
+     * 
+     * @param interaction
+     * @param meta
+     *          The meta data of the book.
+     */
+    private void useSpellBook(PlayerInteractEvent interaction, ItemMeta meta) {
+        Spell spell = SpellBook.getSpellTaught(meta);
+        Wizard wizard = DiagonCraftSpellsPlugin.getWizard(interaction.getPlayer().getUniqueId());
+        
+        if (spell == null || wizard == null) {
+            return;
+        }
+        
+        if (wizard.knowsSpell(spell)) {
+            wizard.getPlayer().sendMessage(ChatColor.RED + "You already know the spell " + ChatColor.LIGHT_PURPLE + spell.getName() + "!");
+            return;
+        }
+        
+        wizard.getPlayer().getInventory().setItemInHand(null);
+        wizard.addSpell(spell);
+        wizard.getPlayer().sendMessage("Learned " + ChatColor.LIGHT_PURPLE + spell.getName() + "!");
+        
+        // Now that the player has learned a new spell, we should update
+        // the player's wizard profile so their new knowledge is saved across
+        // reloads.
+        DiagonCraftSpellsPlugin.getEventBus().post(new SpellLearnedEvent(wizard, spell));
+    }
+    
+}
@@ -25,22 +25,40 @@ package io.github.trystancannon.diagoncraftspells.event;
 
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 
 /**
  * The <code>SpellCastListener</code> catches all <code>SpellCastEvent</code>s,
  * executing the currently selected spell of the <code>Wizard</code> that is
  * the its caster.
  * 
- * Each <code>SpellCastListener</code> MUST be explicitly registered for events
- * because it does not do this itself.
+ * Each <code>SpellCastListener</code> MUST be explicitly subscribed to the
+ * plugin's <code>SpellEventBus</code> through <code>subscribe</code> because
+ * it does not do this itself.
  * 
  * @author Trystan Cannon
  */
-public final class SpellCastListener implements Listener {
+public final class SpellCastListener {
+    
+    /**
+     * Subscribes this listener to the cast events posted through the given bus.
+     * 
+     * @param bus 
+     */
+    public void subscribe(SpellEventBus bus) {
+        bus.subscribe(SpellCastOnBlockEvent.class, new SpellEventSubscriber<SpellCastOnBlockEvent>() {
+            @Override
+            public void handle(SpellCastOnBlockEvent spellCast) {
+                onSpellCastOnBlock(spellCast);
+            }
+        });
+        bus.subscribe(SpellCastOnAirEvent.class, new SpellEventSubscriber<SpellCastOnAirEvent>() {
+            @Override
+            public void handle(SpellCastOnAirEvent spellCast) {
+                onSpellCastOnAir(spellCast);
+            }
+        });
+    }
     
-    @EventHandler
     public void onSpellCastOnBlock(SpellCastOnBlockEvent spellCast) {
         if (spellCast.getSpell() == null) {
             sendNoSpellMessage(spellCast.getCaster().getPlayer());
@@ -52,7 +70,6 @@ public final class SpellCastListener implements Listener {
         }
     }
     
-    @EventHandler
     public void onSpellCastOnAir(SpellCastOnAirEvent spellCast) {
         if (spellCast.getSpell() == null) {
             sendNoSpellMessage(spellCast.getCaster().getPlayer());
@@ -26,6 +26,9 @@ package io.github.trystancannon.diagoncraftspells.event;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
+import java.util.Collections;
+import java.util.List;
+import org.bukkit.block.Block;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
@@ -45,10 +48,17 @@ public final class SpellEffectAddEvent extends Event {
     
     private final Wizard caster;
     
+    private final List<Block> blocks;
+    
     public SpellEffectAddEvent(SpellEffect effect, LivingEntity entityAffected, Wizard caster) {
+        this(effect, entityAffected, caster, Collections.<Block>emptyList());
+    }
+    
+    public SpellEffectAddEvent(SpellEffect effect, LivingEntity entityAffected, Wizard caster, List<Block> blocks) {
         this.effect = effect;
         this.entityAffected = entityAffected;
         this.caster = caster;
+        this.blocks = blocks;
     }
     
     public SpellEffect getEffect() {
@@ -63,6 +73,15 @@ public final class SpellEffectAddEvent extends Event {
         return caster;
     }
     
+    /**
+     * @return
+     *          The blocks changed by the effect. Empty if the effect changes
+     *          no blocks.
+     */
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+    
     @Override
     public HandlerList getHandlers() {
         return handlers;
@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.logging.Level;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.RegisteredListener;
+
+/**
+ * The Spell Event Bus carries the plugin's own events, such as spell casts,
+ * effect changes and projectile strikes, from where they happen to the parts
+ * of the plugin which act on them.
+ * 
+ * Subscribers within the plugin are called directly, rather than through
+ * Bukkit's plugin manager. An event is only handed to Bukkit listeners as well
+ * if some other plugin has registered one for its type. Each subscriber is
+ * called at its own Bukkit priority, ahead of other plugins' listeners of the
+ * same priority, so other plugins see the plugin act on an event at the same
+ * point as when its handlers were Bukkit listeners. Most subscribe at
+ * <code>NORMAL</code>: <code>LOWEST</code> and <code>LOW</code> listeners see
+ * a cast before the spell is cast, and <code>MONITOR</code> listeners after.
+ * Callers which build an event only to announce it can ask whether anyone is
+ * listening with <code>isObserved</code>, and skip building it entirely.
+ * 
+ * The bus is only used from the main thread.
+ * 
+ * @author Trystan Cannon
+ */
+public final class SpellEventBus {
+    
+    /**
+     * A subscriber and the priority at which it is called.
+     */
+    private static final class Subscription {
+        
+        private final EventPriority priority;
+        
+        private final SpellEventSubscriber<?> subscriber;
+        
+        private Subscription(EventPriority priority, SpellEventSubscriber<?> subscriber) {
+            this.priority = priority;
+            this.subscriber = subscriber;
+        }
+        
+    }
+    
+    /**
+     * The plugin's subscriptions, by the exact type of event they handle, in
+     * order of priority.
+     */
+    private final HashMap<Class<?>, ArrayList<Subscription>> subscribers = new HashMap<>();
+    
+    /**
+     * The Bukkit handler list of each event type asked about, found once.
+     */
+    private final HashMap<Class<?>, HandlerList> handlerLists = new HashMap<>();
+    
+    private long postedCount = 0;
+    
+    /**
+     * The number of posted events also handed to Bukkit.
+     */
+    private long bridgedCount = 0;
+    
+    /**
+     * Subscribes to events of exactly the given type, at the
+     * <code>NORMAL</code> priority.
+     * 
+     * @param eventType
+     * @param subscriber 
+     */
+    public <E extends Event> void subscribe(Class<E> eventType, SpellEventSubscriber<E> subscriber) {
+        subscribe(eventType, EventPriority.NORMAL, subscriber);
+    }
+    
+    /**
+     * Subscribes to events of exactly the given type, at the given priority.
+     * 
+     * @param eventType
+     * @param priority
+     *          Where among other plugins' Bukkit listeners the subscriber is
+     *          called.
+     * @param subscriber 
+     */
+    public <E extends Event> void subscribe(Class<E> eventType, EventPriority priority, SpellEventSubscriber<E> subscriber) {
+        ArrayList<Subscription> typeSubscribers = subscribers.get(eventType);
+        
+        if (typeSubscribers == null) {
+            typeSubscribers = new ArrayList<>();
+            subscribers.put(eventType, typeSubscribers);
+        }
+        
+        int index = typeSubscribers.size();
+        
+        while (index > 0 && typeSubscribers.get(index - 1).priority.compareTo(priority) > 0) {
+            index--;
+        }
+        
+        typeSubscribers.add(index, new Subscription(priority, subscriber));
+    }
+    
+    /**
+     * Hands the event to the Bukkit listeners of other plugins and to the
+     * plugin's own subscribers, each in order of priority.
+     * 
+     * @param event
+     * @return
+     *          The event, for checking its state after everyone has handled it.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Event> E post(E event) {
+        postedCount++;
+        
+        // Bukkit keeps the listeners sorted by priority.
+        RegisteredListener[] listeners = event.getHandlers().getRegisteredListeners();
+        int next = 0;
+        
+        if (listeners.length > 0) {
+            bridgedCount++;
+        }
+        
+        ArrayList<Subscription> typeSubscribers = subscribers.get(event.getClass());
+        
+        if (typeSubscribers != null) {
+            for (int i = 0; i < typeSubscribers.size(); i++) {
+                Subscription subscription = typeSubscribers.get(i);
+                
+                while (next < listeners.length && listeners[next].getPriority().compareTo(subscription.priority) < 0) {
+                    call(listeners[next++], event);
+                }
+                
+                ((SpellEventSubscriber<E>) subscription.subscriber).handle(event);
+            }
+        }
+        
+        while (next < listeners.length) {
+            call(listeners[next++], event);
+        }
+        
+        return event;
+    }
+    
+    /**
+     * @param eventType
+     * @return
+     *          Whether or not anything, in this plugin or another, would handle
+     *          an event of the given type if it were posted.
+     */
+    public boolean isObserved(Class<? extends Event> eventType) {
+        if (subscribers.containsKey(eventType)) {
+            return true;
+        }
+        
+        if (!handlerLists.containsKey(eventType)) {
+            handlerLists.put(eventType, findHandlerList(eventType));
+        }
+        
+        HandlerList handlers = handlerLists.get(eventType);
+        
+        // Without a handler list there is no telling, so assume so.
+        return handlers == null || hasListeners(handlers);
+    }
+    
+    /**
+     * @return
+     *          The number of events posted.
+     */
+    public long getPostedCount() {
+        return postedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of posted events which were also handed to the
+     *          Bukkit listeners of other plugins.
+     */
+    public long getBridgedCount() {
+        return bridgedCount;
+    }
+    
+    /**
+     * Calls one Bukkit listener, as Bukkit's plugin manager would: only while
+     * its plugin is enabled, and logging whatever it throws rather than letting
+     * it reach the caster.
+     */
+    private static void call(RegisteredListener listener, Event event) {
+        if (!listener.getPlugin().isEnabled()) {
+            return;
+        }
+        
+        try {
+            listener.callEvent(event);
+        } catch (Throwable failure) {
+            listener.getPlugin().getLogger().log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to "
+                                                 + listener.getPlugin().getDescription().getFullName(), failure);
+        }
+    }
+    
+    private static boolean hasListeners(HandlerList handlers) {
+        return handlers.getRegisteredListeners().length > 0;
+    }
+    
+    /**
+     * @return
+     *          The handler list Bukkit keeps for the given event type, or
+     *          <code>null</code> if it cannot be found.
+     */
+    private static HandlerList findHandlerList(Class<? extends Event> eventType) {
+        try {
+            Method getHandlerList = eventType.getMethod("getHandlerList");
+            return (HandlerList) getHandlerList.invoke(null);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            return null;
+        }
+    }
+    
+}
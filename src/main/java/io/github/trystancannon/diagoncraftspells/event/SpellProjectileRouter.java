@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.event;
+
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
+import io.github.trystancannon.diagoncraftspells.spell.ProjectileSpell;
+import io.github.trystancannon.diagoncraftspells.spell.SpellProjectile;
+
+import java.util.HashMap;
+import java.util.UUID;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+
+/**
+ * The <code>SpellProjectileRouter</code> catches every event concerning a
+ * <code>SpellProjectile</code> and hands it to the <code>ProjectileSpell</code>
+ * which fired that projectile.
+ * 
+ * Projectiles are indexed by id in a single map shared by all spells, so each
+ * event costs one lookup no matter how many projectile spells are registered.
+ * Damage events which do not involve a spell projectile are dropped after that
+ * lookup.
+ * 
+ * The plugin's own projectile events arrive through the plugin's
+ * <code>SpellEventBus</code>. The <code>SpellProjectileRouter</code> MUST be
+ * explicitly registered for events, and subscribed to the bus through
+ * <code>subscribe</code>, because it does not do this itself.
+ * 
+ * @author Trystan Cannon
+ */
+public final class SpellProjectileRouter implements Listener {
+    
+    /**
+     * Every projectile which has not yet struck anything or died, along with
+     * the spell which fired it, keyed by the projectile's id.
+     */
+    private final HashMap<UUID, Route> routes = new HashMap<>();
+    
+    /**
+     * Adds the projectile to the index so that its events are routed to the
+     * given spell.
+     * 
+     * @param projectile
+     *          The projectile just fired.
+     * @param spell
+     *          The spell which fired the projectile.
+     */
+    public void register(SpellProjectile projectile, ProjectileSpell spell) {
+        routes.put(projectile.getUniqueId(), new Route(projectile, spell));
+    }
+    
+    /**
+     * Removes the projectile from the index. No further events are routed for it.
+     * 
+     * @param projectile
+     *          The projectile to forget.
+     */
+    public void unregister(SpellProjectile projectile) {
+        Route route = routes.remove(projectile.getUniqueId());
+        
+        if (route != null) {
+            route.spell.removeProjectile(projectile);
+        }
+    }
+    
+    /**
+     * @param projectileId
+     *          The id of the projectile.
+     * @return
+     *          The spell which fired the projectile, or <code>null</code> if the
+     *          projectile is not registered.
+     */
+    public ProjectileSpell getSpell(UUID projectileId) {
+        Route route = routes.get(projectileId);
+        return route != null ? route.spell : null;
+    }
+    
+    /**
+     * @return
+     *          The number of projectiles currently registered.
+     */
+    public int getRouteCount() {
+        return routes.size();
+    }
+    
+    /**
+     * Calls a <code>SpellProjectileCollideEntityEvent</code> for the projectile
+     * striking the given entity and hands the collision to the spell which
+     * fired it. The projectile is unregistered afterwards, so its death is not
+     * routed to the spell.
+     * 
+     * @param projectile
+     *          The projectile which struck the entity.
+     * @param entity
+     *          The entity struck.
+     * @return
+     *          <code>false</code> if the projectile is not registered.
+     */
+    public boolean dispatchEntityStrike(SpellProjectile projectile, LivingEntity entity) {
+        Route route = routes.get(projectile.getUniqueId());
+        
+        if (route == null) {
+            return false;
+        }
+        
+        SpellProjectileCollideEntityEvent event = new SpellProjectileCollideEntityEvent(entity, projectile, route.spell, projectile.getCaster());
+        
+        DiagonCraftSpellsPlugin.getEventBus().post(event);
+        route.spell.onProjectileStrikeLivingEntity(entity, event, projectile.getCaster());
+        unregister(projectile);
+        
+        return true;
+    }
+    
+    /**
+     * Subscribes the router to the projectile events posted through the given bus.
+     * 
+     * @param bus 
+     */
+    public void subscribe(SpellEventBus bus) {
+        bus.subscribe(SpellProjectileStrikeGroundEvent.class, new SpellEventSubscriber<SpellProjectileStrikeGroundEvent>() {
+            @Override
+            public void handle(SpellProjectileStrikeGroundEvent strike) {
+                onSpellProjectileStrikeGround(strike);
+            }
+        });
+        bus.subscribe(SpellProjectileDeathEvent.class, new SpellEventSubscriber<SpellProjectileDeathEvent>() {
+            @Override
+            public void handle(SpellProjectileDeathEvent death) {
+                onSpellProjectileDeath(death);
+            }
+        });
+        bus.subscribe(SpellProjectileTouchBlockEvent.class, new SpellEventSubscriber<SpellProjectileTouchBlockEvent>() {
+            @Override
+            public void handle(SpellProjectileTouchBlockEvent touch) {
+                onSpellProjectileTouchBlock(touch);
+            }
+        });
+    }
+    
+    @EventHandler
+    public void onEntityDamageByEntity(EntityDamageByEntityEvent damage) {
+        Route route = routes.get(damage.getDamager().getUniqueId());
+        
+        if (route == null) {
+            return;
+        }
+        
+        damage.setCancelled(true);
+        damage.getDamager().remove();
+        
+        if (damage.getEntity() instanceof LivingEntity) {
+            dispatchEntityStrike(route.projectile, (LivingEntity) damage.getEntity());
+        } else {
+            unregister(route.projectile);
+        }
+    }
+    
+    public void onSpellProjectileStrikeGround(SpellProjectileStrikeGroundEvent strike) {
+        Route route = routes.get(strike.getProjectile().getUniqueId());
+        
+        if (route != null) {
+            route.spell.onProjectileStrikeGround(strike.getProjectile().getCaster(), strike.getLocation().getBlock());
+        }
+    }
+    
+    public void onSpellProjectileDeath(SpellProjectileDeathEvent death) {
+        Route route = routes.get(death.getProjectile().getUniqueId());
+        
+        if (route != null) {
+            route.spell.onProjectileDeath(death.getProjectile().getCaster(), death.getProjectile());
+            unregister(death.getProjectile());
+        }
+    }
+    
+    public void onSpellProjectileTouchBlock(SpellProjectileTouchBlockEvent touch) {
+        Route route = routes.get(touch.getProjectile().getUniqueId());
+        
+        if (route != null) {
+            route.spell.onProjectileTouchFilterBlock(touch);
+        }
+    }
+    
+    /**
+     * A projectile paired with the spell which fired it.
+     */
+    private static final class Route {
+        
+        private final SpellProjectile projectile;
+        
+        private final ProjectileSpell spell;
+        
+        private Route(SpellProjectile projectile, ProjectileSpell spell) {
+            this.projectile = projectile;
+            this.spell = spell;
+        }
+        
+    }
+    
+}
@@ -31,7 +31,7 @@ import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 
 /**
- * Occurs when a <code>SpellProjectile</code>'s arrow enters a location whose
+ * Occurs when a <code>SpellProjectile</code> enters a location whose
  * block is of a type stored in its <code>blockFilter</code> <code>HashMap</code>.
  * 
  * @author Trystan Cannon
@@ -58,7 +58,7 @@ public final class SpellProjectileTouchBlockEvent extends Event {
     
     public SpellProjectileTouchBlockEvent(SpellProjectile projectile) {
         this.projectile = projectile;
-        this.touchedBlockLocation = projectile.getArrow().getLocation();
+        this.touchedBlockLocation = projectile.getLocation();
         this.touchedMaterial = touchedBlockLocation.getBlock().getType();
     }
     
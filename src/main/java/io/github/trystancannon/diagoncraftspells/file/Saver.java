@@ -28,6 +28,7 @@ import io.github.trystancannon.diagoncraftspells.spell.Spell;
 
 import java.io.File;
 import java.io.PrintWriter;
+import java.util.List;
 import org.bukkit.entity.Player;
 
 /**
@@ -90,4 +91,42 @@ public final class Saver {
         return true;
     }
     
+    /**
+     * Writes the given lines to the file at the given path, replacing whatever
+     * it held and creating any missing folders on the way.
+     * 
+     * @param filePath
+     *              Path of the file to write.
+     * @param lines
+     *              The lines to write, each on its own line.
+     * 
+     * @return
+     *          <code>true</code> if the file saved without failure.
+     */
+    public static boolean saveLines(String filePath, List<String> lines) {
+        File saveFile = new File(filePath);
+        
+        if (saveFile.isDirectory()) {
+            return false;
+        }
+        
+        File folder = saveFile.getParentFile();
+        
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            return false;
+        }
+        
+        try (PrintWriter writer = new PrintWriter(saveFile)) {
+            for (String line : lines) {
+                writer.println(line);
+            }
+            
+            writer.flush();
+        } catch (Exception failure) {
+            return false;
+        }
+        
+        return true;
+    }
+    
 }
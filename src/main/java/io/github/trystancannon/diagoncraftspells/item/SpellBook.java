@@ -94,7 +94,19 @@ public final class SpellBook {
             return null;
         }
         
-        return new SpellBook(SpellManager.getSpell(ChatColor.stripColor(item.getItemMeta().getDisplayName()).replaceFirst("Spell Book: ", "")));
+        return new SpellBook(getSpellTaught(item.getItemMeta()));
+    }
+    
+    /**
+     * @param meta
+     *          The meta data of a spell book.
+     * 
+     * @return
+     *          The spell taught by the book with the given meta data, or
+     *          <code>null</code> if there is no such spell.
+     */
+    public static Spell getSpellTaught(ItemMeta meta) {
+        return SpellManager.getSpell(ChatColor.stripColor(meta.getDisplayName()).replaceFirst("Spell Book: ", ""));
     }
     
     /**
@@ -120,8 +132,17 @@ public final class SpellBook {
      *          <code>true</code> if the given item is a spell book.
      */
     public static boolean isItemSpellBook(ItemStack item) {
-        return item != null && item.hasItemMeta() && item.getItemMeta().getDisplayName() != null &&
-               ChatColor.stripColor(item.getItemMeta().getDisplayName()).startsWith("Spell Book: ");
+        return item != null && item.getType() == MATERIAL && item.hasItemMeta() && isSpellBookMeta(item.getItemMeta());
+    }
+    
+    /**
+     * @param meta
+     * 
+     * @return
+     *          <code>true</code> if the given meta data is that of a spell book.
+     */
+    public static boolean isSpellBookMeta(ItemMeta meta) {
+        return meta != null && meta.getDisplayName() != null && ChatColor.stripColor(meta.getDisplayName()).startsWith("Spell Book: ");
     }
     
 }
@@ -25,10 +25,14 @@ package io.github.trystancannon.diagoncraftspells.player;
 
 import io.github.trystancannon.diagoncraftspells.inventory.KnownSpellsGUI;
 import io.github.trystancannon.diagoncraftspells.spell.Spell;
+import io.github.trystancannon.diagoncraftspells.spell.effect.EffectType;
 import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -48,6 +52,12 @@ public final class Wizard {
      */
     private final List<SpellEffect> effects = new ArrayList<>();
     
+    /**
+     * The same effects as <code>effects</code>, indexed by type. A type only
+     * has an entry while at least one of its effects is present.
+     */
+    private final Map<EffectType, List<SpellEffect>> effectsByType = new HashMap<>();
+    
     /**
      * All of the <code>Spell</code>s that this wizard currently knows.
      */
@@ -105,11 +115,23 @@ public final class Wizard {
     /**
      * Adds the given effect to the <code>Wizard</code>'s current effects.
      * 
+     * Effects are only ever added and removed from the server thread, so the
+     * effect lists are not synchronized.
+     * 
      * @param effect
      *              Effect to add.
      */
-    public synchronized void addEffect(SpellEffect effect) {
+    public void addEffect(SpellEffect effect) {
         effects.add(effect);
+        
+        List<SpellEffect> ofType = effectsByType.get(effect.getType());
+        
+        if (ofType == null) {
+            ofType = new ArrayList<>(1);
+            effectsByType.put(effect.getType(), ofType);
+        }
+        
+        ofType.add(effect);
     }
     
     /**
@@ -119,41 +141,122 @@ public final class Wizard {
      *          <code>true</code> if this wizard is currently being affected by
      *          the effect with the given name.
      */
-    public synchronized boolean hasEffect(String effectName) {
-        for (SpellEffect effect : effects) {
-            if (effect.getName().equals(effectName)) {
-                return true;
-            }
+    public boolean hasEffect(String effectName) {
+        EffectType type = EffectType.find(effectName);
+        return type != null && effectsByType.containsKey(type);
+    }
+    
+    /**
+     * @param type
+     * 
+     * @return
+     *          <code>true</code> if this wizard is currently being affected by
+     *          an effect of the given type.
+     */
+    public boolean hasEffect(EffectType type) {
+        return effectsByType.containsKey(type);
+    }
+    
+    /**
+     * Gets a read-only view of all of the <code>SpellEffect</code> objects of
+     * the given type which are currently affecting this wizard.
+     * 
+     * The view follows the wizard's effects, so it MUST NOT be iterated while
+     * removing effects. Use <code>removeEffects</code> for that.
+     * 
+     * @param effectName
+     * 
+     * @return
+     *          A read-only list of all of the <code>SpellEffect</code> objects of
+     *          the given type which are currently affecting this wizard.
+     *          Empty if there were no effects found.
+     */
+    public List<SpellEffect> getEffect(String effectName) {
+        EffectType type = EffectType.find(effectName);
+        
+        if (type == null) {
+            return Collections.<SpellEffect>emptyList();
         }
         
-        return false;
+        return getEffect(type);
     }
     
     /**
-     * Gets a list of all of the <code>SpellEffect</code> objects of the given
-     * type which are currently affecting this wizard.
+     * @param type
+     * 
+     * @return
+     *          A read-only list of all of the <code>SpellEffect</code> objects of
+     *          the given type which are currently affecting this wizard.
+     *          Empty if there were no effects found.
+     * 
+     * @see #getEffect(String)
+     */
+    public List<SpellEffect> getEffect(EffectType type) {
+        List<SpellEffect> ofType = effectsByType.get(type);
+        
+        if (ofType == null) {
+            return Collections.<SpellEffect>emptyList();
+        }
+        
+        return Collections.unmodifiableList(ofType);
+    }
+    
+    /**
+     * Removes every effect with the given name from this wizard, calling
+     * <code>remove</code> on each.
      * 
      * @param effectName
      * 
      * @return
-     *          A list of all of the <code>SpellEffect</code> objects of the given
-     *          type which are currently affecting this wizard.
-     *          <code>null</code> if there were no effects found.
+     *          The number of effects removed.
      */
-    public synchronized List<SpellEffect> getEffect(String effectName) {
-        if (!hasEffect(effectName)) {
-            return null;
+    public int removeEffects(String effectName) {
+        EffectType type = EffectType.find(effectName);
+        
+        if (type == null) {
+            return 0;
         }
         
-        List<SpellEffect> currentEffects = new ArrayList<>();
+        List<SpellEffect> ofType = effectsByType.get(type);
+        
+        if (ofType == null) {
+            return 0;
+        }
         
-        for (SpellEffect effect : effects) {
-            if (effect.getName().equals(effectName)) {
-                currentEffects.add(effect);
+        return removeAll(ofType.toArray(new SpellEffect[ofType.size()]));
+    }
+    
+    /**
+     * Removes every effect currently affecting this wizard, calling
+     * <code>remove</code> on each.
+     * 
+     * @return
+     *          The number of effects removed.
+     */
+    public int removeEffects() {
+        return removeAll(effects.toArray(new SpellEffect[effects.size()]));
+    }
+    
+    /**
+     * Removes each of the given effects. The effects are passed as a snapshot
+     * because each removal takes the effect out of this wizard's lists.
+     * 
+     * @param snapshot
+     * 
+     * @return
+     *          The number of effects removed.
+     */
+    private int removeAll(SpellEffect[] snapshot) {
+        int removed = 0;
+        
+        for (SpellEffect effect : snapshot) {
+            if (!effect.isRemoved()) {
+                effect.remove();
+                removed++;
             }
         }
         
-        return currentEffects;
+        return removed;
     }
     
     /**
@@ -165,18 +268,27 @@ public final class Wizard {
      * 
      * @param effect 
      */
-    public synchronized void removeEffectFromList(SpellEffect effect) {
-        if (effects.contains(effect)) {
-            effects.remove(effect);
+    public void removeEffectFromList(SpellEffect effect) {
+        List<SpellEffect> ofType = effectsByType.get(effect.getType());
+        
+        if (ofType == null || !ofType.remove(effect)) {
+            return;
         }
+        
+        if (ofType.isEmpty()) {
+            effectsByType.remove(effect.getType());
+        }
+        
+        effects.remove(effect);
     }
     
     /**
      * @return
-     *          The list of all effects currently affecting this <code>Wizard</code>.
+     *          A read-only view of all effects currently affecting this
+     *          <code>Wizard</code>.
      */
-    public synchronized List<SpellEffect> getEffects() {
-        return effects;
+    public List<SpellEffect> getEffects() {
+        return Collections.unmodifiableList(effects);
     }
     
     /**
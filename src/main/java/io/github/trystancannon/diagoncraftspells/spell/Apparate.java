@@ -24,10 +24,10 @@
 package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.util.BlockRaycast;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
@@ -45,13 +45,23 @@ public class Apparate extends Spell {
     
     public static final List<String> DESCRIPTION = Arrays.asList("Teleports the caster", "5 blocks in the", "direction they", "are looking.");
     
+    /**
+     * The maximum distance, in blocks, the caster is teleported.
+     */
+    public static final double MAX_DISTANCE = 5;
+    
     public Apparate(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
     }
     
     @Override
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
-        Location targetLocation = caster.getPlayer().getTargetBlock((Set) null, 5).getLocation().setDirection(caster.getPlayer().getLocation().getDirection());
+        Location eyeLocation = caster.getPlayer().getEyeLocation();
+        BlockRaycast.Hit hit = BlockRaycast.cast(eyeLocation, eyeLocation.getDirection(), MAX_DISTANCE);
+        
+        // Stop at the first solid block in the way, or travel the full distance.
+        Block destination = hit != null ? hit.getBlock() : eyeLocation.add(eyeLocation.getDirection().multiply(MAX_DISTANCE)).getBlock();
+        Location targetLocation = destination.getLocation().setDirection(caster.getPlayer().getLocation().getDirection());
         // Move the player one block closer to themselves, so they do not get stuck
         // in a block.
         targetLocation.subtract(caster.getPlayer().getLocation().getDirection());
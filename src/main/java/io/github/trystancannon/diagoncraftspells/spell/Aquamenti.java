@@ -24,6 +24,7 @@
 package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.util.BlockRaycast;
 
 import java.util.Arrays;
 import java.util.List;
@@ -67,8 +68,10 @@ public class Aquamenti extends Spell {
      *          The <code>Wizard</code> casting this spell.
      * @param targetBlock
      *          The block next to which the water will spawn.
-     *          If <code>null</code>, then the water appears one block directly
-     *          front of the player's eye location.
+     *          If <code>null</code>, then the water appears against the first
+     *          solid block within one block of the player's eye location, or
+     *          one block directly front of the player's eye location if there
+     *          is none.
      * @param targetFace
      *          The face against which the water will spawn. If <code>null</code>,
      *          the water is spawned one block directly in front of the player's
@@ -86,8 +89,15 @@ public class Aquamenti extends Spell {
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
         // No target block? Cast it right in front of the wizard.
         if (targetBlock == null) {
-            targetBlock = caster.getPlayer().getWorld().getBlockAt(caster.getPlayer().getEyeLocation().add(caster.getPlayer().getEyeLocation().getDirection()));
-            targetFace = BlockFace.SELF;
+            BlockRaycast.Hit hit = BlockRaycast.cast(caster.getPlayer().getEyeLocation(), caster.getPlayer().getEyeLocation().getDirection(), 1);
+            
+            if (hit != null) {
+                targetBlock = hit.getBlock();
+                targetFace = hit.getFace();
+            } else {
+                targetBlock = caster.getPlayer().getWorld().getBlockAt(caster.getPlayer().getEyeLocation().add(caster.getPlayer().getEyeLocation().getDirection()));
+                targetFace = BlockFace.SELF;
+            }
         }
         
         AquamentiTask task = new AquamentiTask(targetBlock, targetFace);
@@ -46,7 +46,8 @@ public class AraniaExumai extends ProjectileSpell {
     
     public AraniaExumai(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
-        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
+        
+        setProjectileMode(ProjectileMode.HITSCAN);
     }
 
     @Override
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.util.BlockRaycast;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Arrow;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.util.Vector;
+
+/**
+ * An arrow spell projectile is an arrow which removes itself upon impact,
+ * allowing a spell to recognize via <code>EntityDamageByEntityEvent</code> which
+ * entity was struck by its projectile, imparting any desired effects.
+ * 
+ * The arrow maintains its launch velocity until collision. Its location is
+ * read into the projectile's pooled state every tick, so ticking allocates
+ * nothing.
+ *
+ * @author Trystan Cannon
+ */
+public class ArrowSpellProjectile extends SpellProjectile {
+    
+    /**
+     * The distance, in blocks, searched ahead of a landed arrow for the block
+     * it struck.
+     */
+    public static final double STRIKE_REACH = 2;
+    
+    /**
+     * The velocity given to an arrow held at a chunk boundary.
+     */
+    private static final Vector STOPPED = new Vector(0, 0, 0);
+    
+    private final Arrow arrow;
+    
+    public ArrowSpellProjectile(Arrow arrow, Plugin plugin, Wizard caster) {
+        super(arrow.getUniqueId(), plugin, caster);
+        
+        this.arrow = arrow;
+        this.state = ProjectileState.obtain(arrow.getLocation(), arrow.getVelocity());
+    }
+    
+    public Arrow getArrow() {
+        return arrow;
+    }
+    
+    @Override
+    public Location getLocation() {
+        return arrow.getLocation();
+    }
+    
+    @Override
+    public World getWorld() {
+        return arrow.getWorld();
+    }
+    
+    @Override
+    protected void despawn() {
+        arrow.remove();
+    }
+    
+    @Override
+    public boolean tick() {
+        if (isRemoved()) {
+            return false;
+        }
+        
+        Location currentLocation = arrow.getLocation(state.location);
+        Vector launchVelocity = state.velocity;
+        World world = currentLocation.getWorld();
+        double x = currentLocation.getX();
+        double y = currentLocation.getY();
+        double z = currentLocation.getZ();
+        
+        if (arrow.getTicksLived() > LIFE_SPAN) {
+            remove();
+            return false;
+        } else if (state.distanceSquaredFromOrigin(x, y, z) >= getRange() * getRange()) {
+            endByRange();
+            return false;
+        // Stop short of chunks which are not loaded, both where the arrow is
+        // and where it will be next tick.
+        } else if (!isChunkLoaded(world, x, z) || !isChunkLoaded(world, x + launchVelocity.getX(), z + launchVelocity.getZ())) {
+            if (reachChunkBoundary()) {
+                arrow.setVelocity(STOPPED);
+                return true;
+            }
+            
+            return false;
+        // Throw a SpellProjectileTouchBlock event if the arrow is currently
+        // inside of a filter block type.
+        } else if (!getFilterBlocks().isEmpty() && hasFilterBlock(getBlockType(world, x, y, z))) {
+            touchFilterBlock();
+            return false;
+        } else if (!arrow.isOnGround() && !arrow.isDead()) {
+            drawTrail(world, x, y, z);
+            arrow.setVelocity(launchVelocity);
+            
+            return true;
+        } else {
+            if (!isRemoved() && arrow.isOnGround()) {
+                Location arrowStrikeLocation = currentLocation.clone();
+                BlockRaycast.Hit hit = BlockRaycast.cast(arrowStrikeLocation, launchVelocity, STRIKE_REACH);
+                
+                // The arrow sits on the surface of, or just inside, the block it
+                // struck, so the first solid block along its path is that block.
+                if (hit != null) {
+                    arrowStrikeLocation = hit.getBlock().getLocation();
+                }
+                
+                strikeGround(arrowStrikeLocation);
+            }
+            
+            remove();
+            return false;
+        }
+    }
+    
+}
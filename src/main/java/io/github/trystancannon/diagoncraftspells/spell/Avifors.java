@@ -25,7 +25,6 @@ package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.effect.AviforsEffect;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
 import java.util.Arrays;
 import java.util.List;
@@ -56,13 +55,7 @@ public class Avifors extends Spell {
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
         alertCast(caster);
         
-        if (caster.hasEffect(getName())) {
-            List<SpellEffect> effects = caster.getEffect(getName());
-            
-            for (int effectIndex = 0; effectIndex < effects.size(); effectIndex++) {
-                effects.get(effectIndex).remove();
-            }
-        } else {
+        if (caster.removeEffects(getName()) == 0) {
             new AviforsEffect(getPlugin(), caster).start();
         }
         
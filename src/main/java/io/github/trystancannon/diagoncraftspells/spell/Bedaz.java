@@ -39,6 +39,7 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Item;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.inventory.InventoryType.SlotType;
@@ -61,7 +62,7 @@ import org.bukkit.potion.PotionEffectType;
  * @deprecated Untested.
  * @author Trystan Cannon (tccannon@live.com)
  */
-public class Bedaz extends ProjectileSpell {
+public class Bedaz extends ProjectileSpell implements Listener {
     
     public static final String NAME = "Bedaz";
     
@@ -75,6 +76,7 @@ public class Bedaz extends ProjectileSpell {
     
     public Bedaz(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
+        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
         ProtocolLibrary.getProtocolManager().addPacketListener(new BedazPacketAdapter(plugin));
     }
 
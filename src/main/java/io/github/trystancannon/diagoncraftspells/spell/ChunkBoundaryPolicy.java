@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+/**
+ * What a <code>SpellProjectile</code> does when the next step of its flight
+ * would take it into a chunk which is not loaded.
+ * 
+ * Projectiles never look at blocks in unloaded chunks, so no policy ever
+ * causes a chunk to be loaded or generated.
+ * 
+ * @author Trystan Cannon
+ */
+public enum ChunkBoundaryPolicy {
+    
+    /**
+     * The projectile dies where it is, exactly as if its life span had run
+     * out. A <code>SpellProjectileDeathEvent</code> is called.
+     */
+    DIE,
+    
+    /**
+     * The projectile halts where it is and resumes its flight if the chunk
+     * ahead is loaded before its life span runs out.
+     */
+    STOP,
+    
+    /**
+     * The projectile is silently discarded. No events are called for it.
+     */
+    CULL
+    
+}
@@ -47,7 +47,6 @@ public class Colloshoo extends ProjectileSpell {
     
     public Colloshoo(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
-        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
     }
 
     @Override
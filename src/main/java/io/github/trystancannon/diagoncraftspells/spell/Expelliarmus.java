@@ -51,6 +51,8 @@ public class Expelliarmus extends ProjectileSpell {
     
     public Expelliarmus(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
+        
+        setProjectileMode(ProjectileMode.HITSCAN);
     }
     
     @Override
@@ -75,8 +77,9 @@ public class Expelliarmus extends ProjectileSpell {
 
     @Override
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
-        fireProjectile(caster);
-        caster.getPlayer().sendMessage(ChatColor.LIGHT_PURPLE + getName() + "!");
+        if (fireProjectile(caster) != null) {
+            caster.getPlayer().sendMessage(ChatColor.LIGHT_PURPLE + getName() + "!");
+        }
         
         return true;
     }
@@ -59,8 +59,9 @@ public class FiendFyre extends ProjectileSpell {
 
     @Override
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
-        fireProjectile(caster);
-        alertCast(caster);
+        if (fireProjectile(caster) != null) {
+            alertCast(caster);
+        }
         
         return true;
     }
@@ -23,19 +23,25 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
+import io.github.trystancannon.diagoncraftspells.util.BlockRaycast;
+import io.github.trystancannon.diagoncraftspells.util.EntityRaycast;
 
 import java.util.Arrays;
 import java.util.List;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.util.Vector;
 
 /**
- * Removes all <code>SpellEffect</code>s from the caster.
+ * Removes all <code>SpellEffect</code>s from the living entity the caster is
+ * looking at, or from the caster if they are not looking at one.
  * 
  * @author Trystan Cannon
  */
@@ -43,7 +49,12 @@ public class FiniteIncantatum extends Spell {
 
     public static final String NAME = "Finite Incantatum";
     
-    public static final List<String> DESCRIPTION = Arrays.asList("Remves all spell effects from", "the caster.");
+    public static final List<String> DESCRIPTION = Arrays.asList("Removes all spell effects from", "the creature in sight, or", "the caster.");
+    
+    /**
+     * How far away, in blocks, a creature can be freed of its effects.
+     */
+    public static final double RANGE = 30;
     
     public FiniteIncantatum(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
@@ -51,19 +62,39 @@ public class FiniteIncantatum extends Spell {
     
     @Override
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
-        // Cannot use a for-each loop here because effect.remove also removes itself
-        // from the wizard's effect list. Therefore, it would cause some funny business with
-        // the way for-each loops get the elements over which they iterate.
-        for (int index = 0; index < caster.getEffects().size(); index++) {
-            SpellEffect effect = caster.getEffects().get(index);
-            
-            if (effect != null) {
-                effect.remove();
-            }
+        if (!(target instanceof LivingEntity)) {
+            target = findTarget(caster);
+        }
+        
+        if (target != null) {
+            DiagonCraftSpellsPlugin.getEffectTable().removeEffects(target);
+        } else {
+            caster.removeEffects();
         }
         
         caster.getPlayer().sendMessage(ChatColor.LIGHT_PURPLE + getName() + "!");
         return true;
     }
     
+    /**
+     * @param caster
+     * 
+     * @return
+     *          The first living entity in the caster's line of sight which is
+     *          not behind a block, or <code>null</code> if there is none within
+     *          <code>RANGE</code>.
+     */
+    private static LivingEntity findTarget(Wizard caster) {
+        Location eye = caster.getPlayer().getEyeLocation();
+        Vector direction = eye.getDirection();
+        
+        BlockRaycast.Hit blockHit = BlockRaycast.cast(eye, direction, RANGE);
+        double reach = blockHit != null ? blockHit.getDistance() : RANGE;
+        EntityRaycast.Hit entityHit = EntityRaycast.cast(eye.getWorld(), eye.getX(), eye.getY(), eye.getZ(),
+                                                         direction.getX(), direction.getY(), direction.getZ(),
+                                                         reach, 0, caster.getPlayer(), eye.clone());
+        
+        return entityHit != null ? entityHit.getEntity() : null;
+    }
+    
 }
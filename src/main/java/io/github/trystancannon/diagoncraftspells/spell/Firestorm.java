@@ -25,7 +25,6 @@ package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.effect.FirestormEffect;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
 import java.util.Arrays;
 import java.util.List;
@@ -54,11 +53,7 @@ public class Firestorm extends Spell {
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
         alertCast(caster);
         
-        if (caster.hasEffect(getName())) {
-            for (SpellEffect effect : caster.getEffect(getName())) {
-                effect.remove();
-            }
-        } else {
+        if (caster.removeEffects(getName()) == 0) {
             new FirestormEffect(getPlugin(), caster).start();
         }
         
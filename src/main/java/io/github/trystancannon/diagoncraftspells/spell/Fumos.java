@@ -24,7 +24,6 @@
 package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 import io.github.trystancannon.diagoncraftspells.spell.effect.FumosEffect;
 
 import java.util.Arrays;
@@ -59,9 +58,7 @@ public class Fumos extends Spell {
         } else {
             // Even though there should only be one Fumos effect right now,
             // this is a catch all in case something else has happened.
-            for (SpellEffect effect : caster.getEffect(getName())) {
-                effect.remove();
-            }
+            caster.removeEffects(getName());
         }
         
         caster.getPlayer().sendMessage(ChatColor.LIGHT_PURPLE + getName() + "!");
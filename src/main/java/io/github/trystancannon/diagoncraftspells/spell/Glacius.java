@@ -25,6 +25,7 @@ package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.event.SpellProjectileTouchBlockEvent;
 import io.github.trystancannon.diagoncraftspells.spell.effect.GlaciusEffect;
+import io.github.trystancannon.diagoncraftspells.util.MaterialSet;
 
 import java.util.Arrays;
 import java.util.List;
@@ -42,11 +43,14 @@ public class Glacius extends ProjectileSpell {
     
     public static final List<String> DESCRIPTION = Arrays.asList("Freezes a single block", "of water for 10 seconds.");
     
+    /**
+     * Both kinds of water block. Shared by all of the Glacius spells.
+     */
+    public static final MaterialSet WATER_FILTER = MaterialSet.of(Material.WATER, Material.STATIONARY_WATER);
+    
     public Glacius(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
-        
-        addFilterBlock(Material.WATER);
-        addFilterBlock(Material.STATIONARY_WATER);
+        setBlockFilter(WATER_FILTER);
     }
 
     @Override
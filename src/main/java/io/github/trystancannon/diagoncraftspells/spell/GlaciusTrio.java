@@ -28,7 +28,6 @@ import io.github.trystancannon.diagoncraftspells.spell.effect.GlaciusAreaEffect;
 
 import java.util.Arrays;
 import java.util.List;
-import org.bukkit.Material;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -46,9 +45,7 @@ public class GlaciusTrio extends ProjectileSpell {
     
     public GlaciusTrio(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
-        
-        addFilterBlock(Material.WATER);
-        addFilterBlock(Material.STATIONARY_WATER);
+        setBlockFilter(Glacius.WATER_FILTER);
     }
 
     @Override
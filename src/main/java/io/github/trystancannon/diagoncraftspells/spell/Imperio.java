@@ -27,7 +27,6 @@ import io.github.trystancannon.diagoncraftspells.event.SpellProjectileCollideEnt
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.effect.CastEffect;
 import io.github.trystancannon.diagoncraftspells.spell.effect.ImperioEffect;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
 import java.util.Arrays;
 import java.util.List;
@@ -70,11 +69,7 @@ public class Imperio extends ProjectileSpell {
 
     @Override
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
-        if (caster.hasEffect(CastEffect.getCastEffectName(this))) {
-            for (SpellEffect castEffect : caster.getEffect(CastEffect.getCastEffectName(this))) {
-                castEffect.remove();
-            }
-            
+        if (caster.removeEffects(CastEffect.getCastEffectName(this)) > 0) {
             alertCast(caster);
             return true;
         }
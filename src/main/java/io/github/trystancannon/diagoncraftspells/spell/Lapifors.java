@@ -25,7 +25,6 @@ package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.effect.LapiforsEffect;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
 import java.util.Arrays;
 import java.util.List;
@@ -53,13 +52,7 @@ public class Lapifors extends Spell {
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
         alertCast(caster);
         
-        if (caster.hasEffect(getName())) {
-            List<SpellEffect> effects = caster.getEffect(getName());
-            
-            for (int effectIndex = 0; effectIndex < effects.size(); effectIndex++) {
-                effects.get(effectIndex).remove();
-            }
-        } else {
+        if (caster.removeEffects(getName()) == 0) {
             new LapiforsEffect(getPlugin(), caster).start();
         }
         
@@ -24,7 +24,6 @@
 package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 import io.github.trystancannon.diagoncraftspells.spell.effect.LevicorpusEffect;
 
 import java.util.Arrays;
@@ -56,9 +55,7 @@ public class Levicorpus extends Spell {
             new LevicorpusEffect(getPlugin(), caster).start();
         // Remove the effect if the caster already has it.
         } else {
-            for (SpellEffect levicorpus : caster.getEffect(getName())) {
-                levicorpus.remove();
-            }
+            caster.removeEffects(getName());
         }
         
         alertCast(caster);
@@ -26,7 +26,6 @@ package io.github.trystancannon.diagoncraftspells.spell;
 import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.event.SpellProjectileCollideEntityEvent;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
 import java.util.Arrays;
 import java.util.List;
@@ -55,10 +54,8 @@ public class Liberacorpus extends ProjectileSpell {
         if (!collisionEvent.isCancelled() && entity instanceof Player) {
             Wizard wizard = DiagonCraftSpellsPlugin.getWizard(((Player) entity).getUniqueId());
             
-            if (wizard != null && wizard.hasEffect(Levicorpus.NAME)) {
-                for (SpellEffect levicorpus : wizard.getEffect(Levicorpus.NAME)) {
-                    levicorpus.remove();
-                }
+            if (wizard != null) {
+                wizard.removeEffects(Levicorpus.NAME);
             }
         }
     }
@@ -0,0 +1,364 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+import io.github.trystancannon.diagoncraftspells.player.Wizard;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.UUID;
+import org.bukkit.World;
+
+/**
+ * Limits how many spell projectiles may be in flight at once: per wizard,
+ * per world, and across the whole server. A ceiling of zero or less means
+ * there is no limit.
+ * 
+ * Every projectile in flight is queued, oldest first, once for its caster,
+ * once for its world and once globally, and each queue keeps a count of the
+ * projectiles in it which are still counted. Releasing a projectile only
+ * marks its entry and lowers the counts. Released entries are dropped from
+ * the front of a queue as they reach it, so neither releasing nor evicting
+ * ever searches a queue.
+ * 
+ * @author Trystan Cannon
+ */
+public final class ProjectileAdmissionController {
+    
+    public static final int DEFAULT_WIZARD_LIMIT = 8;
+    
+    public static final int DEFAULT_WORLD_LIMIT = 200;
+    
+    public static final int DEFAULT_GLOBAL_LIMIT = 500;
+    
+    private int wizardLimit = DEFAULT_WIZARD_LIMIT;
+    
+    private int worldLimit = DEFAULT_WORLD_LIMIT;
+    
+    private int globalLimit = DEFAULT_GLOBAL_LIMIT;
+    
+    private AdmissionPolicy policy = AdmissionPolicy.REJECT;
+    
+    /**
+     * One counted projectile, entered in each of its queues.
+     */
+    static final class Admission {
+        
+        private final SpellProjectile projectile;
+        
+        private final UUID wizardId;
+        
+        private final UUID worldId;
+        
+        private final Queue wizardQueue;
+        
+        private final Queue worldQueue;
+        
+        private boolean isReleased = false;
+        
+        private Admission(SpellProjectile projectile, UUID wizardId, UUID worldId, Queue wizardQueue, Queue worldQueue) {
+            this.projectile = projectile;
+            this.wizardId = wizardId;
+            this.worldId = worldId;
+            this.wizardQueue = wizardQueue;
+            this.worldQueue = worldQueue;
+        }
+        
+    }
+    
+    /**
+     * Projectiles in the order they were counted, along with how many of them
+     * have not been released.
+     */
+    private static final class Queue {
+        
+        private final ArrayDeque<Admission> entries = new ArrayDeque<>();
+        
+        private int count = 0;
+        
+        private void add(Admission admission) {
+            entries.addLast(admission);
+            count++;
+        }
+        
+        /**
+         * Lowers the count for a released entry, dropping any released entries
+         * now at the front.
+         */
+        private void release() {
+            count--;
+            
+            if (count == 0) {
+                entries.clear();
+                return;
+            }
+            
+            while (entries.peekFirst().isReleased) {
+                entries.pollFirst();
+            }
+        }
+        
+        /**
+         * @return
+         *          The oldest projectile which has not been released.
+         */
+        private SpellProjectile getOldest() {
+            return entries.peekFirst().projectile;
+        }
+        
+    }
+    
+    /**
+     * The projectiles in flight for each wizard, by wizard id.
+     */
+    private final HashMap<UUID, Queue> wizardQueues = new HashMap<>();
+    
+    /**
+     * The projectiles in flight in each world, by world id.
+     */
+    private final HashMap<UUID, Queue> worldQueues = new HashMap<>();
+    
+    /**
+     * Every projectile in flight.
+     */
+    private final Queue globalQueue = new Queue();
+    
+    /**
+     * The most projectiles any one wizard has had in flight at once.
+     */
+    private int peakWizardCount = 0;
+    
+    private long rejectedCount = 0;
+    
+    private long evictedCount = 0;
+    
+    /**
+     * Decides whether the given wizard may fire a new projectile in the given
+     * world. Under <code>EVICT_OLDEST</code>, room is made by killing the
+     * oldest projectiles counted against each full ceiling.
+     * 
+     * @param caster
+     *          The wizard about to fire.
+     * @param world
+     *          The world in which the projectile will fly.
+     * @return
+     *          Whether or not the projectile may be fired.
+     */
+    public boolean admit(Wizard caster, World world) {
+        Queue wizardQueue = wizardQueues.get(caster.getUniqueId());
+        Queue worldQueue = worldQueues.get(world.getUID());
+        
+        if (!isFull(wizardQueue, wizardLimit) && !isFull(worldQueue, worldLimit) && !isFull(globalQueue, globalLimit)) {
+            return true;
+        }
+        
+        if (policy == AdmissionPolicy.REJECT) {
+            rejectedCount++;
+            return false;
+        }
+        
+        makeRoom(wizardQueue, wizardLimit);
+        makeRoom(worldQueue, worldLimit);
+        makeRoom(globalQueue, globalLimit);
+        
+        return true;
+    }
+    
+    /**
+     * Starts counting a projectile just fired.
+     * 
+     * @param projectile
+     */
+    public void track(SpellProjectile projectile) {
+        UUID wizardId = projectile.getCaster().getUniqueId();
+        UUID worldId = projectile.getWorld().getUID();
+        Queue wizardQueue = wizardQueues.get(wizardId);
+        Queue worldQueue = worldQueues.get(worldId);
+        
+        if (wizardQueue == null) {
+            wizardQueue = new Queue();
+            wizardQueues.put(wizardId, wizardQueue);
+        }
+        
+        if (worldQueue == null) {
+            worldQueue = new Queue();
+            worldQueues.put(worldId, worldQueue);
+        }
+        
+        Admission admission = new Admission(projectile, wizardId, worldId, wizardQueue, worldQueue);
+        
+        projectile.admission = admission;
+        wizardQueue.add(admission);
+        worldQueue.add(admission);
+        globalQueue.add(admission);
+        
+        peakWizardCount = Math.max(peakWizardCount, wizardQueue.count);
+    }
+    
+    /**
+     * Stops counting a projectile. Does nothing if it is not counted.
+     * 
+     * @param projectile
+     */
+    public void release(SpellProjectile projectile) {
+        Admission admission = projectile.admission;
+        
+        if (admission == null) {
+            return;
+        }
+        
+        projectile.admission = null;
+        admission.isReleased = true;
+        globalQueue.release();
+        admission.wizardQueue.release();
+        admission.worldQueue.release();
+        
+        if (admission.wizardQueue.count == 0) {
+            wizardQueues.remove(admission.wizardId);
+        }
+        
+        if (admission.worldQueue.count == 0) {
+            worldQueues.remove(admission.worldId);
+        }
+    }
+    
+    private static boolean isFull(Queue queue, int limit) {
+        return limit > 0 && queue != null && queue.count >= limit;
+    }
+    
+    /**
+     * Kills the oldest projectiles in the queue until it is below its limit.
+     */
+    private void makeRoom(Queue queue, int limit) {
+        while (isFull(queue, limit)) {
+            SpellProjectile oldest = queue.getOldest();
+            
+            release(oldest);
+            evictedCount++;
+            
+            if (!oldest.isRemoved()) {
+                oldest.remove();
+            }
+        }
+    }
+    
+    public int getWizardLimit() {
+        return wizardLimit;
+    }
+    
+    public void setWizardLimit(int wizardLimit) {
+        this.wizardLimit = wizardLimit;
+    }
+    
+    public int getWorldLimit() {
+        return worldLimit;
+    }
+    
+    public void setWorldLimit(int worldLimit) {
+        this.worldLimit = worldLimit;
+    }
+    
+    public int getGlobalLimit() {
+        return globalLimit;
+    }
+    
+    public void setGlobalLimit(int globalLimit) {
+        this.globalLimit = globalLimit;
+    }
+    
+    public AdmissionPolicy getPolicy() {
+        return policy;
+    }
+    
+    public void setPolicy(AdmissionPolicy policy) {
+        this.policy = policy;
+    }
+    
+    /**
+     * @return
+     *          The number of projectiles counted across the server.
+     */
+    public int getGlobalCount() {
+        return globalQueue.count;
+    }
+    
+    /**
+     * @param worldId
+     * @return
+     *          The number of projectiles counted in the world with the given id.
+     */
+    public int getWorldCount(UUID worldId) {
+        Queue queue = worldQueues.get(worldId);
+        return queue != null ? queue.count : 0;
+    }
+    
+    /**
+     * @param wizardId
+     * @return
+     *          The number of projectiles counted for the wizard with the given id.
+     */
+    public int getWizardCount(UUID wizardId) {
+        Queue queue = wizardQueues.get(wizardId);
+        return queue != null ? queue.count : 0;
+    }
+    
+    /**
+     * @return
+     *          The largest number of projectiles any wizard currently has in flight.
+     */
+    public int getBusiestWizardCount() {
+        int busiest = 0;
+        
+        for (Queue queue : wizardQueues.values()) {
+            busiest = Math.max(busiest, queue.count);
+        }
+        
+        return busiest;
+    }
+    
+    /**
+     * @return
+     *          The most projectiles any one wizard has had in flight at once.
+     */
+    public int getPeakWizardCount() {
+        return peakWizardCount;
+    }
+    
+    /**
+     * @return
+     *          The number of casts refused because a ceiling was reached.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of projectiles killed to make room for new ones.
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+    
+}
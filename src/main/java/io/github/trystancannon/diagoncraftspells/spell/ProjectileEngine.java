@@ -0,0 +1,310 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+import io.github.trystancannon.diagoncraftspells.util.AllocationMeter;
+
+import java.util.Arrays;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * The Projectile Engine owns every <code>SpellProjectile</code> currently in
+ * flight and advances all of them from a single repeating task, rather than
+ * each projectile rescheduling itself every tick.
+ * 
+ * Projectiles are kept in a dense array. When a projectile dies, the last
+ * projectile in the array is swapped into its slot, so removal never shifts
+ * the array.
+ * 
+ * Trail particles collected from every projectile are sent out together at
+ * the end of each tick by the engine's <code>ProjectileTrailRenderer</code>.
+ * 
+ * The engine must be explicitly started with <code>start</code>.
+ * 
+ * @author Trystan Cannon
+ */
+public final class ProjectileEngine implements Runnable {
+    
+    /**
+     * The initial capacity of the projectile array. It grows as needed.
+     */
+    public static final int INITIAL_CAPACITY = 64;
+    
+    /**
+     * The plugin used to schedule the engine's repeating task.
+     */
+    private final Plugin plugin;
+    
+    /**
+     * Draws the trails of all projectiles, once per tick.
+     */
+    private final ProjectileTrailRenderer trailRenderer = new ProjectileTrailRenderer();
+    
+    /**
+     * Limits how many projectiles may be in flight, and counts them.
+     */
+    private final ProjectileAdmissionController admissionController = new ProjectileAdmissionController();
+    
+    /**
+     * All projectiles in flight. Only the first <code>size</code> entries are used.
+     */
+    private SpellProjectile[] projectiles = new SpellProjectile[INITIAL_CAPACITY];
+    
+    /**
+     * The number of projectiles in flight.
+     */
+    private int size = 0;
+    
+    /**
+     * The id of the repeating task driving the engine. -1 if not running.
+     */
+    private int taskId = -1;
+    
+    /**
+     * The number of projectiles advanced during the last tick.
+     */
+    private int lastTickCount = 0;
+    
+    /**
+     * The time, in nanoseconds, spent advancing projectiles during the last tick.
+     */
+    private long lastTickNanos = 0;
+    
+    /**
+     * The bytes of heap allocated while advancing projectiles during the last
+     * tick, including by the events they called. -1 if the JVM cannot measure it.
+     */
+    private long lastTickAllocatedBytes = -1;
+    
+    /**
+     * The number of projectiles ended at a chunk boundary since the engine
+     * was created.
+     */
+    private long chunkBoundaryEndCount = 0;
+    
+    /**
+     * The number of projectiles ended by their range since the engine was
+     * created.
+     */
+    private long rangeEndCount = 0;
+    
+    public ProjectileEngine(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Schedules the repeating task which advances all projectiles every
+     * server tick. Does nothing if the engine is already running.
+     */
+    public void start() {
+        if (taskId == -1) {
+            taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+        }
+    }
+    
+    /**
+     * Cancels the engine's repeating task. Projectiles still in flight stay
+     * registered but are no longer advanced.
+     */
+    public void stop() {
+        if (taskId != -1) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+    }
+    
+    /**
+     * Adds the given projectile to the engine. It will first be advanced on
+     * the next engine tick, or later in the current one if it is registered
+     * while the engine is advancing projectiles. The projectile should first
+     * have been admitted by
+     * the engine's <code>ProjectileAdmissionController</code>.
+     * 
+     * @param projectile
+     *          The projectile to advance.
+     */
+    public void register(SpellProjectile projectile) {
+        if (size == projectiles.length) {
+            projectiles = Arrays.copyOf(projectiles, size * 2);
+        }
+        
+        projectiles[size++] = projectile;
+        admissionController.track(projectile);
+    }
+    
+    /**
+     * Advances every projectile by one tick, dropping those which have died.
+     */
+    @Override
+    public void run() {
+        long startBytes = AllocationMeter.getCurrentThreadAllocatedBytes();
+        long startTime = System.nanoTime();
+        int advanced = 0;
+        int index = 0;
+        
+        // The size is re-read every iteration because a projectile's events
+        // may cause new projectiles to be registered during the tick. Those
+        // are advanced in this same tick.
+        while (index < size) {
+            SpellProjectile projectile = projectiles[index];
+            boolean isInFlight = false;
+            
+            // Projectiles removed since the last tick are dropped without
+            // being advanced or counted.
+            if (!projectile.isRemoved()) {
+                advanced++;
+                isInFlight = projectile.tick();
+            }
+            
+            if (isInFlight) {
+                index++;
+            } else {
+                countEnd(projectile);
+                admissionController.release(projectile);
+                projectile.recycle();
+                
+                // Swap the last projectile into this slot and check it next.
+                projectiles[index] = projectiles[--size];
+                projectiles[size] = null;
+            }
+        }
+        
+        trailRenderer.flush();
+        
+        lastTickCount = advanced;
+        lastTickNanos = System.nanoTime() - startTime;
+        lastTickAllocatedBytes = startBytes != -1 ? AllocationMeter.getCurrentThreadAllocatedBytes() - startBytes : -1;
+    }
+    
+    /**
+     * @return
+     *          The renderer which draws the trails of all projectiles.
+     */
+    public ProjectileTrailRenderer getTrailRenderer() {
+        return trailRenderer;
+    }
+    
+    /**
+     * @return
+     *          The controller which limits how many projectiles may be in flight.
+     */
+    public ProjectileAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+    
+    /**
+     * Counts the projectile if it was ended by its flight limits.
+     * 
+     * @param projectile
+     *          The projectile being dropped from the engine.
+     */
+    private void countEnd(SpellProjectile projectile) {
+        if (projectile.getEndCause() == SpellProjectile.EndCause.CHUNK_BOUNDARY) {
+            chunkBoundaryEndCount++;
+        } else if (projectile.getEndCause() == SpellProjectile.EndCause.RANGE) {
+            rangeEndCount++;
+        }
+    }
+    
+    /**
+     * @return
+     *          The number of projectiles currently in flight.
+     */
+    public int getActiveCount() {
+        return size;
+    }
+    
+    /**
+     * @return
+     *          The number of projectiles advanced during the last tick.
+     */
+    public int getLastTickCount() {
+        return lastTickCount;
+    }
+    
+    /**
+     * @return
+     *          The time, in nanoseconds, spent advancing projectiles during the
+     *          last tick.
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    /**
+     * The bytes of heap allocated while advancing projectiles during the last
+     * tick. With no projectiles striking anything, this should stay at or near
+     * zero no matter how many projectiles are in flight.
+     * 
+     * @return
+     *          The bytes allocated, or -1 if the JVM cannot measure it.
+     */
+    public long getLastTickAllocatedBytes() {
+        return lastTickAllocatedBytes;
+    }
+    
+    /**
+     * @return
+     *          The number of projectile states waiting in the pool for reuse.
+     */
+    public int getPooledStateCount() {
+        return ProjectileState.getPooledCount();
+    }
+    
+    /**
+     * @return
+     *          The number of projectile states ever created.
+     */
+    public long getCreatedStateCount() {
+        return ProjectileState.getCreatedCount();
+    }
+    
+    /**
+     * @return
+     *          The number of times a projectile state was reused from the pool.
+     */
+    public long getReusedStateCount() {
+        return ProjectileState.getReusedCount();
+    }
+    
+    /**
+     * @return
+     *          The number of projectiles which have died or been culled at a
+     *          chunk boundary.
+     */
+    public long getChunkBoundaryEndCount() {
+        return chunkBoundaryEndCount;
+    }
+    
+    /**
+     * @return
+     *          The number of projectiles which have died after travelling their
+     *          full range.
+     */
+    public long getRangeEndCount() {
+        return rangeEndCount;
+    }
+    
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+/**
+ * The ways in which a <code>ProjectileSpell</code> can embody the projectiles
+ * it fires.
+ * 
+ * @author Trystan Cannon
+ */
+public enum ProjectileMode {
+    
+    /**
+     * Each projectile rides a real arrow entity. Hits are detected by the
+     * server through <code>EntityDamageByEntityEvent</code>.
+     */
+    ARROW,
+    
+    /**
+     * Each projectile is simulated without an entity and drawn with particles.
+     * Hits are detected by sweeping its path every tick.
+     */
+    VIRTUAL,
+    
+    /**
+     * Each projectile is resolved the moment it is cast, by sweeping its
+     * whole range at once. Nothing is left in flight, so the projectile costs
+     * nothing on later ticks. Suits spells which only care about what is
+     * struck first.
+     */
+    HITSCAN
+    
+}
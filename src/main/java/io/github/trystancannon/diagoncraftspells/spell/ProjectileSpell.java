@@ -23,34 +23,34 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.event.SpellProjectileCollideEntityEvent;
-import io.github.trystancannon.diagoncraftspells.event.SpellProjectileDeathEvent;
-import io.github.trystancannon.diagoncraftspells.event.SpellProjectileStrikeGroundEvent;
 import io.github.trystancannon.diagoncraftspells.event.SpellProjectileTouchBlockEvent;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.util.MaterialSet;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
+import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.plugin.Plugin;
 
 /**
  * An abstraction layer for spells. All Projectile Spells fire a projectile and
  * therefore must keep track of their fired projectiles.
  * 
- * Each <code>ProjectileSpell</code> registers itself for events.
+ * Events concerning a projectile are routed to the spell which fired it by the
+ * plugin's <code>SpellProjectileRouter</code>, so spells do not register
+ * themselves for events.
  * 
  * @author Trystan Cannon
  */
-public abstract class ProjectileSpell extends Spell implements Listener {
+public abstract class ProjectileSpell extends Spell {
     
     /**
      * All projectiles for this spell that have not been removed from the world
@@ -59,29 +59,42 @@ public abstract class ProjectileSpell extends Spell implements Listener {
     private final HashMap<UUID, SpellProjectile> projectiles;
     
     /**
-     * A list of all blocks that cause a projectile from this spell to call a
-     * <code>SpellProjectileTouchBlockEvent</code>.
+     * The set of all blocks that cause a projectile from this spell to call a
+     * <code>SpellProjectileTouchBlockEvent</code>. Shared by reference with
+     * every projectile the spell fires.
      */
-    private final HashMap<Material, Boolean> blockFilter;
+    private MaterialSet blockFilter = MaterialSet.EMPTY;
+    
+    /**
+     * How projectiles fired by this spell are embodied in the world.
+     */
+    private ProjectileMode projectileMode = ProjectileMode.ARROW;
+    
+    /**
+     * The distance, in blocks, projectiles fired by this spell travel before
+     * they die.
+     */
+    private double range = SpellProjectile.DEFAULT_RANGE;
+    
+    /**
+     * What projectiles fired by this spell do when they reach a chunk which
+     * is not loaded.
+     */
+    private ChunkBoundaryPolicy chunkBoundaryPolicy = ChunkBoundaryPolicy.DIE;
     
     public ProjectileSpell(String name, List<String> description, Plugin plugin) {
         super(name, description, plugin);
-        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
         
         this.projectiles = new HashMap<>();
-        this.blockFilter = new HashMap<>();
     }
     
     /**
-     * Removes the given entity from the projectiles list if it is a registered
-     * projectile.
+     * Removes the given projectile from the projectiles list if it is registered.
      * 
      * @param projectile 
      */
-    public void removeProjectile(Entity projectile) {
-        if (projectiles.get(projectile.getUniqueId()) != null) {
-            projectiles.remove(projectile.getUniqueId());
-        }
+    public void removeProjectile(SpellProjectile projectile) {
+        projectiles.remove(projectile.getUniqueId());
     }
     
     /**
@@ -94,22 +107,122 @@ public abstract class ProjectileSpell extends Spell implements Listener {
     }
     
     /**
-     * Fires a projectile and adds it to the projectiles list without
-     * the overhead.
+     * Fires a projectile if the plugin's <code>ProjectileAdmissionController</code>
+     * allows it, telling the caster if it does not. In <code>HITSCAN</code> mode,
+     * the projectile is instead resolved at once and never enters flight, so
+     * it is not subject to admission.
+     * 
+     * The projectile is added to the projectiles list and registered
+     * with the plugin's <code>ProjectileEngine</code>, which advances it
+     * every tick until it dies, and its <code>SpellProjectileRouter</code>,
+     * which routes the projectile's events back to this spell.
      * 
      * @param caster
      *          The <code>Wizard</code> casting the spell that fires this projectile.
+     * @return
+     *          The projectile fired, or <code>null</code> if it was not admitted.
      */
-    public void fireProjectile(Wizard caster) {
-        SpellProjectile projectile = fireSpellProjectileFromCaster(caster);
-        addProjectile(projectile);
+    public SpellProjectile fireProjectile(Wizard caster) {
+        if (projectileMode == ProjectileMode.HITSCAN) {
+            VirtualSpellProjectile projectile = launchVirtualSpellProjectileFromCaster(caster);
+            
+            prepareProjectile(projectile);
+            projectile.resolve();
+            projectile.recycle();
+            
+            return projectile;
+        }
         
-        // Add all of the filter blocks.
-        for (Material filterType : blockFilter.keySet()) {
-            projectile.addFilterBlock(filterType);
+        ProjectileEngine engine = DiagonCraftSpellsPlugin.getProjectileEngine();
+        
+        if (!engine.getAdmissionController().admit(caster, caster.getPlayer().getWorld())) {
+            caster.getPlayer().sendMessage(ChatColor.RED + "Too many of your spells are already in flight!");
+            return null;
         }
         
-        projectile.run();
+        SpellProjectile projectile;
+        
+        if (projectileMode == ProjectileMode.VIRTUAL) {
+            projectile = launchVirtualSpellProjectileFromCaster(caster);
+        } else {
+            projectile = fireSpellProjectileFromCaster(caster);
+        }
+        
+        prepareProjectile(projectile);
+        engine.register(projectile);
+        
+        return projectile;
+    }
+    
+    /**
+     * Applies this spell's projectile settings to the given projectile, adds
+     * it to the projectiles list and routes its events to this spell.
+     * 
+     * @param projectile 
+     */
+    private void prepareProjectile(SpellProjectile projectile) {
+        addProjectile(projectile);
+        projectile.setBlockFilter(blockFilter);
+        projectile.setRange(range);
+        projectile.setChunkBoundaryPolicy(chunkBoundaryPolicy);
+        
+        DiagonCraftSpellsPlugin.getProjectileRouter().register(projectile, this);
+    }
+    
+    /**
+     * @return
+     *          How projectiles fired by this spell are embodied in the world.
+     */
+    public ProjectileMode getProjectileMode() {
+        return projectileMode;
+    }
+    
+    /**
+     * Sets how projectiles fired by this spell from now on are embodied in
+     * the world. Projectiles already in flight are unaffected.
+     * 
+     * @param projectileMode 
+     */
+    public void setProjectileMode(ProjectileMode projectileMode) {
+        this.projectileMode = projectileMode;
+    }
+    
+    /**
+     * @return
+     *          The distance, in blocks, projectiles fired by this spell travel
+     *          before they die.
+     */
+    public double getRange() {
+        return range;
+    }
+    
+    /**
+     * Sets the distance, in blocks, projectiles fired by this spell from now
+     * on travel before they die.
+     * 
+     * @param range 
+     */
+    public void setRange(double range) {
+        this.range = range;
+    }
+    
+    /**
+     * @return
+     *          What projectiles fired by this spell do when they reach a chunk
+     *          which is not loaded.
+     */
+    public ChunkBoundaryPolicy getChunkBoundaryPolicy() {
+        return chunkBoundaryPolicy;
+    }
+    
+    /**
+     * Sets what projectiles fired by this spell from now on do when they
+     * reach a chunk which is not loaded.
+     * 
+     * @param chunkBoundaryPolicy 
+     */
+    public void setChunkBoundaryPolicy(ChunkBoundaryPolicy chunkBoundaryPolicy) {
+        this.chunkBoundaryPolicy = chunkBoundaryPolicy;
     }
     
     /**
@@ -129,7 +242,7 @@ public abstract class ProjectileSpell extends Spell implements Listener {
      *          The type of block to add.
      */
     public void addFilterBlock(Material blockType) {
-        blockFilter.put(blockType, true);
+        blockFilter = blockFilter.with(blockType);
     }
     
     /**
@@ -140,9 +253,27 @@ public abstract class ProjectileSpell extends Spell implements Listener {
      *          The type of block to remove.
      */
     public void removeFilterBlock(Material blockType) {
-        blockFilter.remove(blockType);
+        blockFilter = blockFilter.without(blockType);
     }
     
+    /**
+     * Replaces the <code>blockFilter</code> for all projectiles spawned by
+     * this spell from now on.
+     * 
+     * @param blockFilter
+     *          The set of block types to filter.
+     */
+    public void setBlockFilter(MaterialSet blockFilter) {
+        this.blockFilter = blockFilter;
+    }
+    
+    /**
+     * @return
+     *          The set of block types filtered by projectiles spawned by this spell.
+     */
+    public MaterialSet getBlockFilter() {
+        return blockFilter;
+    }
     
     /**
      * Checks if the <code>blockFilter</code> for all projectiles spawned by
@@ -154,47 +285,7 @@ public abstract class ProjectileSpell extends Spell implements Listener {
      *          Whether or not the type exists in the <code>blockFilter</code>.
      */
     public boolean hasFilterBlock(Material blockType) {
-        return blockFilter.get(blockType) != null;
-    }
-    
-    @EventHandler
-    public void onEntityDamageByEntity(EntityDamageByEntityEvent damage) {
-        if (projectiles.get(damage.getDamager().getUniqueId()) != null) {
-            damage.setCancelled(true);
-            damage.getDamager().remove();
-            
-            if (damage.getEntity() instanceof LivingEntity) {
-                SpellProjectile projectile = projectiles.get(damage.getDamager().getUniqueId());
-                LivingEntity entity = (LivingEntity) damage.getEntity();
-                SpellProjectileCollideEntityEvent event = new SpellProjectileCollideEntityEvent(entity, projectile, this, projectile.getCaster());
-                
-                getPlugin().getServer().getPluginManager().callEvent(event);
-                onProjectileStrikeLivingEntity(entity, event, projectile.getCaster());
-            }
-            
-            projectiles.remove(damage.getDamager().getUniqueId());
-        }
-    }
-    
-    @EventHandler
-    public void onSpellProjectileStrikeGround(SpellProjectileStrikeGroundEvent strike) {
-        if (projectiles.get(strike.getProjectile().getUniqueId()) != null) {
-            onProjectileStrikeGround(strike.getProjectile().getCaster(), strike.getLocation().getBlock());
-        }
-    }
-    
-    @EventHandler
-    public void onSpellProjectileDeath(SpellProjectileDeathEvent death) {
-        if (projectiles.get(death.getProjectile().getUniqueId()) != null) {
-            onProjectileDeath(death.getProjectile().getCaster(), death.getProjectile());
-        }
-    }
-    
-    @EventHandler
-    public void onSpellProjectileTouchBlock(SpellProjectileTouchBlockEvent touch) {
-        if (projectiles.get(touch.getProjectile().getUniqueId()) != null) {
-            onProjectileTouchFilterBlock(touch);
-        }
+        return blockFilter.contains(blockType);
     }
     
     /**
@@ -259,8 +350,9 @@ public abstract class ProjectileSpell extends Spell implements Listener {
     
     @Override
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
-        fireProjectile(caster);
-        alertCast(caster);
+        if (fireProjectile(caster) != null) {
+            alertCast(caster);
+        }
         
         return true;
     }
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+import java.util.ArrayDeque;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.Vector;
+
+/**
+ * The mutable working state of one <code>SpellProjectile</code>'s flight: its
+ * launch point and velocity, and a scratch <code>Location</code> reused every
+ * tick, so that advancing a projectile allocates nothing.
+ * 
+ * States are recycled. The <code>ProjectileEngine</code> returns a projectile's
+ * state to the pool once the projectile is dropped, and the next projectile
+ * launched takes it back out. The pool is only ever touched from the main
+ * server thread.
+ * 
+ * @author Trystan Cannon
+ */
+final class ProjectileState {
+    
+    /**
+     * The most states kept in the pool. States recycled beyond this are left
+     * to the garbage collector.
+     */
+    static final int MAX_POOLED = 256;
+    
+    private static final ArrayDeque<ProjectileState> pool = new ArrayDeque<>();
+    
+    /**
+     * The number of states ever created.
+     */
+    private static long createdCount = 0;
+    
+    /**
+     * The number of times a state was taken from the pool instead of created.
+     */
+    private static long reusedCount = 0;
+    
+    /**
+     * Scratch location, overwritten freely during a tick. Never hand it to
+     * code which might keep it.
+     */
+    final Location location = new Location(null, 0, 0, 0);
+    
+    /**
+     * The velocity, in blocks per tick, at which the projectile was launched.
+     */
+    final Vector velocity = new Vector();
+    
+    double originX;
+    double originY;
+    double originZ;
+    
+    private ProjectileState() {
+        createdCount++;
+    }
+    
+    /**
+     * Takes a state from the pool, or creates one if the pool is empty.
+     * 
+     * @param origin
+     *          The location from which the projectile is launched.
+     * @param launchVelocity
+     *          The velocity at which the projectile is launched. Copied.
+     * @return
+     *          A state describing a projectile at the start of its flight.
+     */
+    static ProjectileState obtain(Location origin, Vector launchVelocity) {
+        ProjectileState state = pool.poll();
+        
+        if (state == null) {
+            state = new ProjectileState();
+        } else {
+            reusedCount++;
+        }
+        
+        state.location.setWorld(origin.getWorld());
+        state.originX = origin.getX();
+        state.originY = origin.getY();
+        state.originZ = origin.getZ();
+        state.velocity.copy(launchVelocity);
+        
+        return state;
+    }
+    
+    /**
+     * Returns this state to the pool. It must not be used afterwards.
+     */
+    void recycle() {
+        // Do not keep a world alive through the pool.
+        location.setWorld(null);
+        
+        if (pool.size() < MAX_POOLED) {
+            pool.push(this);
+        }
+    }
+    
+    /**
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     *          The squared distance from the launch point to the given point.
+     */
+    double distanceSquaredFromOrigin(double x, double y, double z) {
+        double dx = x - originX;
+        double dy = y - originY;
+        double dz = z - originZ;
+        
+        return dx * dx + dy * dy + dz * dz;
+    }
+    
+    /**
+     * @return
+     *          The number of states waiting in the pool.
+     */
+    static int getPooledCount() {
+        return pool.size();
+    }
+    
+    /**
+     * @return
+     *          The number of states ever created.
+     */
+    static long getCreatedCount() {
+        return createdCount;
+    }
+    
+    /**
+     * @return
+     *          The number of times a state was reused from the pool.
+     */
+    static long getReusedCount() {
+        return reusedCount;
+    }
+    
+}
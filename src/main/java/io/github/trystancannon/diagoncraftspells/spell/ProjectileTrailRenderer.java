@@ -0,0 +1,278 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+import java.util.Arrays;
+import org.bukkit.Bukkit;
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * Draws the smoke trails of every spell projectile. Projectiles hand their
+ * trail points to the renderer as they move, and the
+ * <code>ProjectileEngine</code> flushes all of them at the end of each tick.
+ * 
+ * Each point is only sent to players within the view distance of it, and
+ * the further a player is from the trail, the fewer of its points they are
+ * sent. Points are thinned by their place along their own trail, so every
+ * distant trail is thinned alike. No player is sent more than the particle
+ * budget in a single tick, so a large volley cannot flood one client's
+ * connection. Each tick starts sending a budget further along the points
+ * than the last, so a player over budget still sees every trail in turn.
+ * 
+ * @author Trystan Cannon
+ */
+public final class ProjectileTrailRenderer {
+    
+    /**
+     * The default distance, in blocks, beyond which trail points are not sent.
+     */
+    public static final double DEFAULT_VIEW_DISTANCE = 48;
+    
+    /**
+     * The default distance, in blocks, within which every trail point is sent.
+     */
+    public static final double DEFAULT_FULL_DETAIL_DISTANCE = 16;
+    
+    /**
+     * The default most particles sent to one player in one tick.
+     */
+    public static final int DEFAULT_PARTICLE_BUDGET = 40;
+    
+    /**
+     * The initial capacity of the point buffers. They grow as needed.
+     */
+    public static final int INITIAL_CAPACITY = 256;
+    
+    /**
+     * The data value sent with each smoke particle.
+     */
+    private static final int SMOKE_DATA = 50;
+    
+    private double viewDistance = DEFAULT_VIEW_DISTANCE;
+    
+    private double fullDetailDistance = DEFAULT_FULL_DETAIL_DISTANCE;
+    
+    private int particleBudget = DEFAULT_PARTICLE_BUDGET;
+    
+    /**
+     * The points collected this tick. Only the first <code>size</code> entries
+     * are used.
+     */
+    private World[] worlds = new World[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private double[] zs = new double[INITIAL_CAPACITY];
+    private int[] sequences = new int[INITIAL_CAPACITY];
+    
+    private int size = 0;
+    
+    /**
+     * Where in the points the next flush starts sending.
+     */
+    private int start = 0;
+    
+    /**
+     * Reused to read each player's location and to send each particle.
+     */
+    private final Location playerLocation = new Location(null, 0, 0, 0);
+    private final Location pointLocation = new Location(null, 0, 0, 0);
+    
+    private int lastPointCount = 0;
+    
+    private int lastSentCount = 0;
+    
+    private int lastOverBudgetCount = 0;
+    
+    /**
+     * Adds a point to this tick's trails.
+     * 
+     * @param world
+     * @param x
+     * @param y
+     * @param z 
+     * @param sequence
+     *          The number of points added to the same trail before this one.
+     */
+    public void addPoint(World world, double x, double y, double z, int sequence) {
+        if (size == xs.length) {
+            worlds = Arrays.copyOf(worlds, size * 2);
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+            zs = Arrays.copyOf(zs, size * 2);
+            sequences = Arrays.copyOf(sequences, size * 2);
+        }
+        
+        worlds[size] = world;
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        sequences[size] = sequence;
+        size++;
+    }
+    
+    /**
+     * Sends this tick's trail points to the players who should see them, then
+     * clears them.
+     */
+    public void flush() {
+        int sent = 0;
+        int overBudget = 0;
+        
+        if (size > 0) {
+            double viewDistanceSquared = viewDistance * viewDistance;
+            
+            if (start >= size) {
+                start = 0;
+            }
+            
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                player.getLocation(playerLocation);
+                
+                World world = playerLocation.getWorld();
+                int budget = particleBudget;
+                
+                for (int offset = 0; offset < size; offset++) {
+                    int index = start + offset < size ? start + offset : start + offset - size;
+                    
+                    if (worlds[index] != world) {
+                        continue;
+                    }
+                    
+                    double dx = xs[index] - playerLocation.getX();
+                    double dy = ys[index] - playerLocation.getY();
+                    double dz = zs[index] - playerLocation.getZ();
+                    double distanceSquared = dx * dx + dy * dy + dz * dz;
+                    
+                    if (distanceSquared > viewDistanceSquared || sequences[index] % getStride(distanceSquared) != 0) {
+                        continue;
+                    }
+                    
+                    if (budget == 0) {
+                        overBudget++;
+                        continue;
+                    }
+                    
+                    pointLocation.setWorld(world);
+                    pointLocation.setX(xs[index]);
+                    pointLocation.setY(ys[index]);
+                    pointLocation.setZ(zs[index]);
+                    
+                    player.playEffect(pointLocation, Effect.SMOKE, SMOKE_DATA);
+                    budget--;
+                    sent++;
+                }
+            }
+            
+            // Do not keep worlds alive through the buffers.
+            Arrays.fill(worlds, 0, size, null);
+            pointLocation.setWorld(null);
+            
+            start = (int) ((start + (long) Math.max(particleBudget, 0)) % size);
+        }
+        
+        playerLocation.setWorld(null);
+        
+        lastPointCount = size;
+        lastSentCount = sent;
+        lastOverBudgetCount = overBudget;
+        size = 0;
+    }
+    
+    /**
+     * Level of detail. Within the full detail distance every point is sent.
+     * Beyond it, one point in two is sent, then one in three one full detail
+     * distance further, and so on.
+     * 
+     * @param distanceSquared
+     *          The squared distance from the player to the point.
+     * @return
+     *          Only points whose place along their trail is a multiple of
+     *          this are sent.
+     */
+    private int getStride(double distanceSquared) {
+        if (distanceSquared <= fullDetailDistance * fullDetailDistance) {
+            return 1;
+        }
+        
+        return 1 + (int) (Math.sqrt(distanceSquared) / fullDetailDistance);
+    }
+    
+    public double getViewDistance() {
+        return viewDistance;
+    }
+    
+    public void setViewDistance(double viewDistance) {
+        this.viewDistance = viewDistance;
+    }
+    
+    public double getFullDetailDistance() {
+        return fullDetailDistance;
+    }
+    
+    /**
+     * @param fullDetailDistance
+     *          The distance, in blocks, within which every trail point is sent.
+     *          Must be positive.
+     */
+    public void setFullDetailDistance(double fullDetailDistance) {
+        this.fullDetailDistance = fullDetailDistance;
+    }
+    
+    public int getParticleBudget() {
+        return particleBudget;
+    }
+    
+    public void setParticleBudget(int particleBudget) {
+        this.particleBudget = particleBudget;
+    }
+    
+    /**
+     * @return
+     *          The number of trail points collected during the last tick.
+     */
+    public int getLastPointCount() {
+        return lastPointCount;
+    }
+    
+    /**
+     * @return
+     *          The number of particles sent to players during the last tick.
+     */
+    public int getLastSentCount() {
+        return lastSentCount;
+    }
+    
+    /**
+     * @return
+     *          The number of particles which would have been sent during the
+     *          last tick but for the players' particle budgets.
+     */
+    public int getLastOverBudgetCount() {
+        return lastOverBudgetCount;
+    }
+    
+}
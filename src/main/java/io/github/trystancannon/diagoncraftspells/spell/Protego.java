@@ -24,7 +24,6 @@
 package io.github.trystancannon.diagoncraftspells.spell;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
-import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 import io.github.trystancannon.diagoncraftspells.spell.effect.ProtegoEffect;
 
 import java.util.Arrays;
@@ -57,11 +56,7 @@ public final class Protego extends Spell {
         if (!caster.hasEffect(getName())) {
             new ProtegoEffect(getPlugin(), caster).start();
         } else {
-            for (SpellEffect effect : caster.getEffect(getName())) {
-                if (effect != null) {
-                    effect.remove();
-                }
-            }
+            caster.removeEffects(getName());
         }
         
         alertCast(caster);
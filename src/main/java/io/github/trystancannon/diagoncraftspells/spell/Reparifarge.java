@@ -27,6 +27,7 @@ import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.effect.DisguiseEffect;
 import io.github.trystancannon.diagoncraftspells.spell.effect.SpellEffect;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.bukkit.block.Block;
@@ -53,8 +54,8 @@ public class Reparifarge extends Spell {
     public boolean execute(Wizard caster, Block targetBlock, BlockFace targetFace, Entity target, String[] args) {
         alertCast(caster);
         
-        for (int effectIndex = 0; effectIndex < caster.getEffects().size(); effectIndex++) {
-            SpellEffect effect = caster.getEffects().get(effectIndex);
+        // Snapshot the effects, since each removal takes one out of the list.
+        for (SpellEffect effect : new ArrayList<>(caster.getEffects())) {
             
             if (effect instanceof DisguiseEffect) {
                 effect.remove();
@@ -154,7 +154,24 @@ public abstract class Spell {
      *          The projectile fired.
      */
     public SpellProjectile fireSpellProjectileFromCaster(Wizard caster) {
-        return new SpellProjectile(fireArrowFromCaster(caster, SPELL_PROJECTILE_SPEED), getPlugin(), caster);
+        return new ArrowSpellProjectile(fireArrowFromCaster(caster, SPELL_PROJECTILE_SPEED), getPlugin(), caster);
+    }
+    
+    /**
+     * Launches a virtual spell projectile from this spell. It starts where an
+     * arrow fired by <code>fireArrowFromCaster</code> would and travels at the
+     * same speed, but no entity is spawned.
+     * 
+     * @param caster
+     * @return
+     *          The projectile launched.
+     */
+    public VirtualSpellProjectile launchVirtualSpellProjectileFromCaster(Wizard caster) {
+        Location launchLocation = caster.getPlayer().getEyeLocation();
+        Vector velocity = launchLocation.getDirection().multiply(SPELL_PROJECTILE_SPEED);
+        
+        launchLocation.add(launchLocation.getDirection().multiply(2));
+        return new VirtualSpellProjectile(launchLocation, velocity, getPlugin(), caster);
     }
     
     /**
@@ -23,138 +23,332 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.event.SpellProjectileDeathEvent;
 import io.github.trystancannon.diagoncraftspells.event.SpellProjectileStrikeGroundEvent;
 import io.github.trystancannon.diagoncraftspells.event.SpellProjectileTouchBlockEvent;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.util.MaterialSet;
 
-import java.util.HashMap;
 import java.util.UUID;
-import org.bukkit.Bukkit;
-import org.bukkit.Effect;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.entity.Arrow;
+import org.bukkit.World;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.util.Vector;
+import org.bukkit.util.NumberConversions;
 
 /**
- * A spell projectile launches is an arrow which removes itself upon impact,
- * allowing a spell to recognize via <code>EntityDamageByEntityEvent</code> which
- * entity was struck by its projectile, imparting any desired effects.
+ * A spell projectile travels in a straight line at its launch velocity until
+ * it strikes a living entity or the ground, allowing the spell which fired it
+ * to impart any desired effects on whatever it struck.
  * 
- * The spell projectile maintains its launch launchVelocity until collision.
+ * How the projectile is embodied in the world is left to its subclasses: an
+ * <code>ArrowSpellProjectile</code> rides a real arrow entity, while a
+ * <code>VirtualSpellProjectile</code> is simulated without any entity at all.
+ * 
+ * A projectile dies once it has travelled its range. It never looks at blocks
+ * in chunks which are not loaded; its <code>ChunkBoundaryPolicy</code> decides
+ * what happens when its flight leads into one.
+ * 
+ * Projectiles do not schedule themselves. They are advanced each tick by the
+ * <code>ProjectileEngine</code> with which they are registered.
  *
  * @author Trystan Cannon
  */
-public class SpellProjectile implements Runnable {
+public abstract class SpellProjectile {
 
     /**
-     * The maximum number of server ticks before the arrow will be removed,
+     * The maximum number of server ticks before the projectile will be removed,
      * for its velocity will never cause it to land.
      */
     public static final int LIFE_SPAN = 200;
     
-    private final Arrow arrow;
+    /**
+     * The default distance, in blocks, a projectile travels before it dies.
+     */
+    public static final double DEFAULT_RANGE = 200;
+    
+    /**
+     * The reasons for which a projectile can be ended early by its flight
+     * limits rather than by striking something.
+     */
+    public enum EndCause {
+        
+        /**
+         * The projectile reached a chunk which is not loaded.
+         */
+        CHUNK_BOUNDARY,
+        
+        /**
+         * The projectile travelled its full range.
+         */
+        RANGE
+        
+    }
+    
+    private final UUID uniqueId;
     
     private final Plugin plugin;
     
     private final Wizard caster;
     
-    private final Vector launchVelocity;
-    
     private boolean isRemoved = false;
     
     /**
-     * A list of all blocks that cause the projectile to call a <code>SpellProjectileTouchBlockEvent</code>.
+     * The set of all blocks that cause the projectile to call a <code>SpellProjectileTouchBlockEvent</code>.
+     */
+    private MaterialSet blockFilter = MaterialSet.EMPTY;
+    
+    /**
+     * The distance, in blocks, the projectile travels before it dies.
+     */
+    private double range = DEFAULT_RANGE;
+    
+    /**
+     * What the projectile does when it reaches a chunk which is not loaded.
+     */
+    private ChunkBoundaryPolicy chunkBoundaryPolicy = ChunkBoundaryPolicy.DIE;
+    
+    /**
+     * Why the projectile was ended by its flight limits. <code>null</code> if
+     * it was not.
+     */
+    private EndCause endCause;
+    
+    /**
+     * The number of points added to the projectile's trail.
+     */
+    private int trailPointCount = 0;
+    
+    /**
+     * The working state of the projectile's flight. Set by each subclass when
+     * it is created, and returned to the pool by the <code>ProjectileEngine</code>.
      */
-    private final HashMap<Material, Boolean> blockFilter;
+    ProjectileState state;
     
-    public SpellProjectile(Arrow arrow, Plugin plugin, Wizard caster) {
-        this.arrow = arrow;
+    /**
+     * The projectile's place in the <code>ProjectileAdmissionController</code>'s
+     * queues, or <code>null</code> while it is not counted.
+     */
+    ProjectileAdmissionController.Admission admission;
+    
+    public SpellProjectile(UUID uniqueId, Plugin plugin, Wizard caster) {
+        this.uniqueId = uniqueId;
         this.plugin = plugin;
         this.caster = caster;
-        this.launchVelocity = arrow.getVelocity();
-        this.blockFilter = new HashMap<>();
     }
     
     /**
      * @return
-     *          The UUID of the <code>Arrow</code> entity by which this projectile
-     *          is embodied.
+     *          The UUID by which this projectile is identified.
      */
     public UUID getUniqueId() {
-        return arrow.getUniqueId();
+        return uniqueId;
     }
     
     public Wizard getCaster() {
         return caster;
     }
     
-    public Arrow getArrow() {
-        return arrow;
+    public Plugin getPlugin() {
+        return plugin;
     }
     
+    /**
+     * @return
+     *          The current location of the projectile.
+     */
+    public abstract Location getLocation();
+    
+    /**
+     * @return
+     *          The world in which the projectile is flying.
+     */
+    public abstract World getWorld();
+    
     public void addFilterBlock(Material blockType) {
-        blockFilter.put(blockType, true);
+        blockFilter = blockFilter.with(blockType);
     }
     
     public void removeFilterBlock(Material blockType) {
-        blockFilter.remove(blockType);
+        blockFilter = blockFilter.without(blockType);
     }
     
     public boolean hasFilterBlock(Material blockType) {
-        return blockFilter.get(blockType) != null;
+        return blockFilter.contains(blockType);
     }
     
-    public HashMap<Material, Boolean> getFilterBlocks() {
+    /**
+     * Replaces the set of filtered blocks. The set is shared, not copied.
+     * 
+     * @param blockFilter 
+     */
+    public void setBlockFilter(MaterialSet blockFilter) {
+        this.blockFilter = blockFilter;
+    }
+    
+    public MaterialSet getFilterBlocks() {
         return blockFilter;
     }
     
+    public double getRange() {
+        return range;
+    }
+    
+    public void setRange(double range) {
+        this.range = range;
+    }
+    
+    public ChunkBoundaryPolicy getChunkBoundaryPolicy() {
+        return chunkBoundaryPolicy;
+    }
+    
+    public void setChunkBoundaryPolicy(ChunkBoundaryPolicy chunkBoundaryPolicy) {
+        this.chunkBoundaryPolicy = chunkBoundaryPolicy;
+    }
+    
+    /**
+     * @return
+     *          Why the projectile was ended by its flight limits, or <code>null</code>
+     *          if it was not.
+     */
+    public EndCause getEndCause() {
+        return endCause;
+    }
+    
     public void remove() {
         isRemoved = true;
         
-        arrow.remove();
-        plugin.getServer().getPluginManager().callEvent(new SpellProjectileDeathEvent(this));
+        despawn();
+        DiagonCraftSpellsPlugin.getEventBus().post(new SpellProjectileDeathEvent(this));
+    }
+    
+    /**
+     * Discards the projectile without calling any events, forgetting it in
+     * the plugin's <code>SpellProjectileRouter</code>.
+     */
+    public void cull() {
+        isRemoved = true;
+        
+        despawn();
+        DiagonCraftSpellsPlugin.getProjectileRouter().unregister(this);
     }
     
     public boolean isRemoved() {
         return isRemoved;
     }
     
-    @Override
-    public void run() {
-        if (isRemoved()) {
-            return;
+    /**
+     * Removes whatever represents the projectile in the world.
+     */
+    protected abstract void despawn();
+    
+    /**
+     * Returns the projectile's working state to the pool. Called by the
+     * <code>ProjectileEngine</code> once it drops the projectile, after which
+     * the projectile is never advanced again.
+     */
+    void recycle() {
+        if (state != null) {
+            state.recycle();
+            state = null;
         }
-        
-        if (arrow.getTicksLived() > LIFE_SPAN) {
-            remove();
-        // Throw a SpellProjectileTouchBlock event if the arrow is currently
-        // inside of a filter block type.
-        } else if (blockFilter.get(arrow.getLocation().getBlock().getType()) != null) {
-            plugin.getServer().getPluginManager().callEvent(new SpellProjectileTouchBlockEvent(this));
-        } else if (!arrow.isOnGround() && !arrow.isDead()) {
-            arrow.getWorld().playEffect(arrow.getLocation(), Effect.SMOKE, 50);
-            arrow.setVelocity(launchVelocity);
-            
-            Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, this, 1L);
-        } else {
-            if (!isRemoved() && arrow.isOnGround()) {
-                Location arrowStrikeLocation = arrow.getLocation();
-                Vector direction = launchVelocity.normalize();
-                double reach = 0.01;
-                
-                while (arrowStrikeLocation.getBlock().getType() == Material.AIR) {
-                    arrowStrikeLocation.add(direction.multiply(reach));
-                    reach += 0.01;
-                }
-                
-                plugin.getServer().getPluginManager().callEvent(new SpellProjectileStrikeGroundEvent(this, arrowStrikeLocation));
-            }
-            
-            remove();
+    }
+    
+    /**
+     * Ends the projectile because it travelled its full range.
+     */
+    protected void endByRange() {
+        endCause = EndCause.RANGE;
+        remove();
+    }
+    
+    /**
+     * Applies the projectile's <code>ChunkBoundaryPolicy</code> because the
+     * next step of its flight leads into a chunk which is not loaded.
+     * 
+     * @return
+     *          <code>true</code> if the projectile is still in flight, having
+     *          been stopped rather than ended.
+     */
+    protected boolean reachChunkBoundary() {
+        switch (chunkBoundaryPolicy) {
+            case STOP:
+                return true;
+            case CULL:
+                endCause = EndCause.CHUNK_BOUNDARY;
+                cull();
+                return false;
+            default:
+                endCause = EndCause.CHUNK_BOUNDARY;
+                remove();
+                return false;
         }
     }
     
+    /**
+     * @param world
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     *          The type of the block at the given point. Read by id so that no
+     *          block object is created.
+     */
+    @SuppressWarnings("deprecation")
+    protected static Material getBlockType(World world, double x, double y, double z) {
+        return Material.getMaterial(world.getBlockTypeIdAt(NumberConversions.floor(x), NumberConversions.floor(y), NumberConversions.floor(z)));
+    }
+    
+    /**
+     * @param world
+     * @param x
+     * @param z
+     * @return
+     *          Whether or not the chunk holding the given point is loaded. This
+     *          never loads the chunk.
+     */
+    protected static boolean isChunkLoaded(World world, double x, double z) {
+        return world.isChunkLoaded(NumberConversions.floor(x) >> 4, NumberConversions.floor(z) >> 4);
+    }
+    
+    /**
+     * Adds a point to the projectile's trail, drawn at the end of the tick.
+     * 
+     * @param world
+     * @param x
+     * @param y
+     * @param z 
+     */
+    protected void drawTrail(World world, double x, double y, double z) {
+        DiagonCraftSpellsPlugin.getProjectileEngine().getTrailRenderer().addPoint(world, x, y, z, trailPointCount++);
+    }
+    
+    /**
+     * Calls a <code>SpellProjectileTouchBlockEvent</code> for the block the
+     * projectile currently occupies.
+     */
+    protected void touchFilterBlock() {
+        DiagonCraftSpellsPlugin.getEventBus().post(new SpellProjectileTouchBlockEvent(this));
+    }
+    
+    /**
+     * Calls a <code>SpellProjectileStrikeGroundEvent</code> for the given location.
+     * 
+     * @param strikeLocation
+     *          The location of the block struck.
+     */
+    protected void strikeGround(Location strikeLocation) {
+        DiagonCraftSpellsPlugin.getEventBus().post(new SpellProjectileStrikeGroundEvent(this, strikeLocation));
+    }
+    
+    /**
+     * Advances the projectile by one server tick.
+     * 
+     * @return
+     *          <code>true</code> if the projectile is still in flight and should
+     *          be advanced again on the next tick.
+     */
+    public abstract boolean tick();
+    
 }
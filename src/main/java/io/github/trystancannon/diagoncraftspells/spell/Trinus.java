@@ -46,6 +46,8 @@ public class Trinus extends ProjectileSpell {
     
     public Trinus(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
+        
+        setProjectileMode(ProjectileMode.HITSCAN);
     }
 
     @Override
@@ -45,6 +45,8 @@ public class ViperaEvanesca extends ProjectileSpell {
     
     public ViperaEvanesca(Plugin plugin) {
         super(NAME, DESCRIPTION, plugin);
+        
+        setProjectileMode(ProjectileMode.HITSCAN);
     }
 
     @Override
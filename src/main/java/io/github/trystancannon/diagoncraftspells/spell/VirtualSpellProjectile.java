@@ -0,0 +1,263 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell;
+
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
+import io.github.trystancannon.diagoncraftspells.player.Wizard;
+import io.github.trystancannon.diagoncraftspells.util.BlockRaycast;
+import io.github.trystancannon.diagoncraftspells.util.EntityRaycast;
+
+import java.util.UUID;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.util.Vector;
+
+/**
+ * A virtual spell projectile has no entity behind it. Its position and
+ * velocity are plain numbers advanced every tick, and it is drawn with
+ * particles alone.
+ * 
+ * All of its working state is plain fields or pooled, so a tick in which the
+ * projectile strikes nothing allocates nothing in this plugin. Bukkit does
+ * still build the list of entities near the path.
+ * 
+ * Each tick, the path the projectile is about to travel is swept against the
+ * block grid and the living entities around it, so it can never pass through
+ * a target no matter how fast it moves. Strikes are reported through the same
+ * events as an <code>ArrowSpellProjectile</code>, so spells cannot tell the two
+ * apart.
+ *
+ * @author Trystan Cannon
+ */
+public class VirtualSpellProjectile extends SpellProjectile {
+    
+    /**
+     * The radius of the projectile when tested against entities. This matches
+     * the size of an arrow.
+     */
+    public static final double RADIUS = 0.25;
+    
+    /**
+     * The distance, in blocks, between the trail points drawn along the
+     * projectile's path. Filter blocks are looked for at the same spacing.
+     */
+    public static final double TRAIL_SPACING = 1;
+    
+    /**
+     * The longest distance swept at once when a projectile is resolved
+     * instantly. Keeping each sweep within a chunk keeps the box searched for
+     * entities small, and lets the sweep end at the first hit.
+     */
+    public static final double SEGMENT_LENGTH = 16;
+    
+    private final World world;
+    
+    private double x;
+    private double y;
+    private double z;
+    
+    private final double velocityX;
+    private final double velocityY;
+    private final double velocityZ;
+    
+    /**
+     * The distance travelled every tick.
+     */
+    private final double speed;
+    
+    private int ticksLived = 0;
+    
+    /**
+     * The total distance travelled since launch.
+     */
+    private double distanceTravelled = 0;
+    
+    /**
+     * Creates a projectile at the given location, travelling at the given
+     * velocity in blocks per tick.
+     * 
+     * @param location
+     * @param velocity
+     * @param plugin
+     * @param caster 
+     */
+    public VirtualSpellProjectile(Location location, Vector velocity, Plugin plugin, Wizard caster) {
+        super(UUID.randomUUID(), plugin, caster);
+        
+        this.world = location.getWorld();
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.velocityX = velocity.getX();
+        this.velocityY = velocity.getY();
+        this.velocityZ = velocity.getZ();
+        this.speed = velocity.length();
+        this.state = ProjectileState.obtain(location, velocity);
+    }
+    
+    @Override
+    public Location getLocation() {
+        return new Location(world, x, y, z);
+    }
+    
+    @Override
+    public World getWorld() {
+        return world;
+    }
+    
+    /**
+     * Nothing represents a virtual projectile in the world once it stops
+     * drawing particles.
+     */
+    @Override
+    protected void despawn() {
+    }
+    
+    /**
+     * @param distance
+     *          The distance about to be travelled.
+     * @return
+     *          Whether or not every chunk the path ahead could touch is loaded.
+     *          The path is never longer than a chunk, so this is at most four
+     *          chunks.
+     */
+    private boolean isPathLoaded(double distance) {
+        double endX = x + velocityX / speed * distance;
+        double endZ = z + velocityZ / speed * distance;
+        
+        return isChunkLoaded(world, x, z) && isChunkLoaded(world, endX, endZ)
+            && isChunkLoaded(world, x, endZ) && isChunkLoaded(world, endX, z);
+    }
+    
+    @Override
+    public boolean tick() {
+        if (isRemoved()) {
+            return false;
+        }
+        
+        if (ticksLived++ > LIFE_SPAN || speed == 0) {
+            remove();
+            return false;
+        }
+        
+        return advance(speed);
+    }
+    
+    /**
+     * Resolves the projectile's whole flight at once, calling the same events
+     * it would call if it were advanced by the <code>ProjectileEngine</code>.
+     * The projectile is never left in flight: where it would be stopped at a
+     * chunk boundary, or would stay alive after touching a filter block, it is
+     * ended instead.
+     */
+    public void resolve() {
+        if (speed == 0) {
+            remove();
+            return;
+        }
+        
+        while (!isRemoved()) {
+            double travelledBefore = distanceTravelled;
+            
+            if (!advance(SEGMENT_LENGTH)) {
+                break;
+            } else if (distanceTravelled == travelledBefore) {
+                // Stopped at a chunk boundary, with no later tick to wait for.
+                remove();
+            }
+        }
+        
+        if (!isRemoved()) {
+            cull();
+        }
+    }
+    
+    /**
+     * Moves the projectile along its path, striking whatever it meets first.
+     * 
+     * @param distance
+     *          The distance to travel. This is never longer than a chunk.
+     * @return
+     *          <code>true</code> if the projectile is still in flight.
+     */
+    private boolean advance(double distance) {
+        double step = Math.min(distance, getRange() - distanceTravelled);
+        
+        if (step <= 0) {
+            endByRange();
+            return false;
+        }
+        
+        if (!isPathLoaded(step)) {
+            return reachChunkBoundary();
+        }
+        
+        BlockRaycast.Hit blockHit = BlockRaycast.cast(world, x, y, z, velocityX, velocityY, velocityZ, step);
+        double reach = blockHit != null ? blockHit.getDistance() : step;
+        EntityRaycast.Hit entityHit = EntityRaycast.cast(world, x, y, z, velocityX, velocityY, velocityZ,
+                                                         reach, RADIUS, getCaster().getPlayer(), state.location);
+        
+        if (entityHit != null) {
+            reach = entityHit.getDistance();
+        }
+        
+        double startX = x;
+        double startY = y;
+        double startZ = z;
+        double travelled = 0;
+        
+        // Walk the path up to whatever was struck, drawing the trail and
+        // stopping at the first filter block.
+        while (travelled < reach) {
+            travelled = Math.min(travelled + TRAIL_SPACING, reach);
+            
+            x = startX + velocityX / speed * travelled;
+            y = startY + velocityY / speed * travelled;
+            z = startZ + velocityZ / speed * travelled;
+            
+            if (!getFilterBlocks().isEmpty() && hasFilterBlock(getBlockType(world, x, y, z))) {
+                touchFilterBlock();
+                return false;
+            }
+            
+            drawTrail(world, x, y, z);
+        }
+        
+        distanceTravelled += reach;
+        
+        if (entityHit != null) {
+            DiagonCraftSpellsPlugin.getProjectileRouter().dispatchEntityStrike(this, entityHit.getEntity());
+            remove();
+            return false;
+        } else if (blockHit != null) {
+            strikeGround(blockHit.getBlock().getLocation());
+            remove();
+            return false;
+        }
+        
+        return true;
+    }
+    
+}
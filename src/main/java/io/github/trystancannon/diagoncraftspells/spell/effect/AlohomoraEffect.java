@@ -23,13 +23,14 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Alohomora;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -41,52 +42,64 @@ public class AlohomoraEffect extends LocationEffect {
     
     public static final int LIFE_SPAN = 200;
     
-    private int removalTaskId = -1;
+    /**
+     * The top half of the door, kept so that reaching it when the effect ends
+     * never loads its chunk.
+     */
+    private Block topBlock;
     
     public AlohomoraEffect(Plugin plugin, Location blockLocation, Wizard caster) {
         super(Alohomora.NAME, plugin, blockLocation, caster);
     }
     
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
-        removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
         
         // Make sure the block struck was the top door block.
         // If we try to use the bottom of the door, it will be destroyed
         // when we change its type to a wooden door.
-        Block topBlock = getBlock().getLocation().add(0, 1, 0).getBlock();
-        if (topBlock.getType() != Material.IRON_DOOR_BLOCK) {
-            setBlock(getBlock().getLocation().add(0, -1, 0).getBlock());
+        Block above = getBlock().getRelative(BlockFace.UP);
+        if (above.getType() != Material.IRON_DOOR_BLOCK) {
+            setBlock(getBlock().getRelative(BlockFace.DOWN));
         }
         
+        topBlock = getBlock().getRelative(BlockFace.UP);
+        
         // Deprecated method usage: What else can we do?
         getBlock().setTypeIdAndData(64, (byte) 0, false);
-        getBlock().getLocation().add(0, 1, 0).getBlock().setTypeIdAndData(64, (byte) 8, true);
+        topBlock.setTypeIdAndData(64, (byte) 8, true);
+        
+        DiagonCraftSpellsPlugin.getProtectedBlocks().protect(getBlock());
+        DiagonCraftSpellsPlugin.getProtectedBlocks().protect(topBlock);
     }
     
     @Override
     public void run() {
         if (!isRemoved()) {
-            removalTaskId = -1;
             remove();
         }
     }
     
     @Override
-    public void remove() {
-        super.remove();
+    protected void onRemove() {
+        BlockRestorer restorer = DiagonCraftSpellsPlugin.getBlockRestorer();
         
-        // Make sure the block is still a door.
-        if (getBlock().getType() == Material.WOODEN_DOOR) {
-            getBlock().setTypeIdAndData(71, (byte) 0, false);
-            getBlock().getLocation().add(0, 1, 0).getBlock().setTypeIdAndData(71, (byte) 8, true);
-        }
+        DiagonCraftSpellsPlugin.getProtectedBlocks().unprotect(getBlock());
+        DiagonCraftSpellsPlugin.getProtectedBlocks().unprotect(topBlock);
         
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-            removalTaskId = -1;
-        }
+        // Each half is only restored if it is still a door.
+        restorer.restore(getBlock(), Material.WOODEN_DOOR, Material.IRON_DOOR_BLOCK, (byte) 0, false);
+        restorer.restore(topBlock, Material.WOODEN_DOOR, Material.IRON_DOOR_BLOCK, (byte) 8, true);
     }
     
 }
@@ -26,7 +26,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.ArestoMomentum;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.potion.PotionEffect;
@@ -38,17 +37,30 @@ import org.bukkit.potion.PotionEffectType;
  * @author Trystan Cannon
  */
 public class ArestoMomentumEffect extends SpellEffect {
+    
+    /**
+     * The number of server ticks for which this effect is active.
+     */
+    public static final int LIFE_SPAN = 200;
 
     public ArestoMomentumEffect(Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         super(ArestoMomentum.NAME, plugin, entityAffected, caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
         
-        getEntity().addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 200, 257));
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 200L);
+        getEntity().addPotionEffect(new PotionEffect(PotionEffectType.SLOW, LIFE_SPAN, 257));
     }
     
     @Override
@@ -59,8 +71,7 @@ public class ArestoMomentumEffect extends SpellEffect {
     }
     
     @Override
-    public void remove() {
-        super.remove();
+    protected void onRemove() {
         getEntity().removePotionEffect(PotionEffectType.SLOW);
     }
     
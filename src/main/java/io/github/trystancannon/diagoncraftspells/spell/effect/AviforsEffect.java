@@ -28,7 +28,6 @@ import io.github.trystancannon.diagoncraftspells.spell.Avifors;
 
 import pgDev.bukkit.DisguiseCraft.disguise.DisguiseType;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
@@ -48,12 +47,19 @@ public class AviforsEffect extends DisguiseEffect {
     
     private float flySpeed = 0.1F;
     
-    private int removalTaskId = -1;
-    
     public AviforsEffect(Plugin plugin, Wizard caster) {
         super(Avifors.NAME, plugin, caster.getPlayer(), caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
@@ -68,20 +74,18 @@ public class AviforsEffect extends DisguiseEffect {
         playerAffected.setFlySpeed(0.1F);
         
         disguisePlayer(DisguiseType.Bat);
-        removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
     }
     
     @Override
     public void run() {
         if (hasStarted() && !isRemoved()) {
-            removalTaskId = -1;
             remove();
         }
     }
     
     @Override
-    public void remove() {
-        super.remove();
+    protected void onRemove() {
+        super.onRemove();
         Player playerAffected = getPlayerAffected();
         
         playerAffected.setAllowFlight(wasAllowedFlight);
@@ -89,11 +93,6 @@ public class AviforsEffect extends DisguiseEffect {
         playerAffected.setFlySpeed(flySpeed);
         
         playerAffected.setFallDistance(0F);
-        
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-            removalTaskId = -1;
-        }
     }
     
 }
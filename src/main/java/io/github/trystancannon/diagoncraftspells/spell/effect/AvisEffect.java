@@ -25,7 +25,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Avis;
-import org.bukkit.Bukkit;
 
 import org.bukkit.entity.EntityType;
 import org.bukkit.plugin.Plugin;
@@ -51,12 +50,19 @@ public class AvisEffect extends SpawnEffect {
         setSpawnedEntity(getCaster().getPlayer().getWorld().spawnEntity(getCaster().getPlayer().getLocation(), EntityType.BAT));
     }
     
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
         spawnEntity();
-        
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
     }
 
     @Override
@@ -67,12 +73,12 @@ public class AvisEffect extends SpawnEffect {
     }
     
     @Override
-    public void remove() {
+    protected void onRemove() {
         if (getSpawnedEntity() != null) {
             getSpawnedEntity().remove();
         }
         
-        super.remove();
+        super.onRemove();
     }
     
 }
@@ -0,0 +1,527 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import io.github.trystancannon.diagoncraftspells.file.Loader;
+import io.github.trystancannon.diagoncraftspells.file.Saver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.WorldSaveEvent;
+
+/**
+ * Puts back the blocks spell effects changed when the effects end.
+ * 
+ * Outside a batch, each block is restored at once. Inside a batch, opened by
+ * <code>beginBatch</code>, restores are queued and applied together when the
+ * batch ends, in one pass without physics, so a frozen lake or a prison
+ * coming down at shutdown does not update the neighbours of every block while
+ * the rest are still waiting to be restored.
+ * 
+ * A block whose chunk is not loaded is never touched, since that would load
+ * the chunk from disk. Its restore waits, with the others in its chunk, until
+ * the chunk loads. Waiting restores are saved to the plugin's data folder
+ * whenever the worlds are saved and when the plugin is disabled, and read
+ * back when it is enabled.
+ * 
+ * Only used on the main thread.
+ * 
+ * @author Trystan Cannon
+ */
+public final class BlockRestorer implements Listener {
+    
+    /**
+     * The path, relative to the plugin's data folder, of the file holding the
+     * restores still waiting for their chunks. It is kept out of the data
+     * folder itself, where every <code>.txt</code> file is a wizard profile.
+     */
+    public static final String FILE_NAME = "restores/pending.dat";
+    
+    /**
+     * A block waiting to be restored.
+     */
+    private static final class Restore {
+        
+        private final UUID worldId;
+        
+        private final int x;
+        
+        private final int y;
+        
+        private final int z;
+        
+        /**
+         * The type the block must still be for it to be restored, or
+         * <code>null</code> if it is restored whatever it has become.
+         */
+        private final Material expected;
+        
+        private final Material type;
+        
+        private final byte data;
+        
+        /**
+         * The entity spawned on the block once it is restored, or
+         * <code>null</code> for none.
+         */
+        private final EntityType spawned;
+        
+        private Restore(UUID worldId, int x, int y, int z, Material expected, Material type, byte data, EntityType spawned) {
+            this.worldId = worldId;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.expected = expected;
+            this.type = type;
+            this.data = data;
+            this.spawned = spawned;
+        }
+        
+        /**
+         * @return
+         *          This restore as one line of the restore file.
+         */
+        private String toLine() {
+            return worldId + " " + x + " " + y + " " + z + " " + (expected != null ? expected.name() : "-")
+                   + " " + type.name() + " " + data + " " + (spawned != null ? spawned.name() : "-");
+        }
+        
+        /**
+         * @param line
+         * 
+         * @return
+         *          The restore written as the given line of the restore file,
+         *          or <code>null</code> if the line is malformed.
+         */
+        private static Restore fromLine(String line) {
+            String[] fields = line.trim().split(" ");
+            
+            if (fields.length != 8) {
+                return null;
+            }
+            
+            try {
+                Material expected = fields[4].equals("-") ? null : Material.valueOf(fields[4]);
+                EntityType spawned = fields[7].equals("-") ? null : EntityType.valueOf(fields[7]);
+                
+                return new Restore(UUID.fromString(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                                   Integer.parseInt(fields[3]), expected, Material.valueOf(fields[5]),
+                                   Byte.parseByte(fields[6]), spawned);
+            } catch (IllegalArgumentException malformed) {
+                return null;
+            }
+        }
+        
+    }
+    
+    /**
+     * The restores queued by the open batch.
+     */
+    private final ArrayList<Restore> pending = new ArrayList<>();
+    
+    /**
+     * The restores waiting for their chunks to load, by world and then by
+     * chunk, keyed with <code>chunkKey</code>.
+     */
+    private final HashMap<UUID, HashMap<Long, List<Restore>>> deferred = new HashMap<>();
+    
+    /**
+     * The number of batches open. Restores are only applied once the
+     * outermost batch ends.
+     */
+    private int batchDepth = 0;
+    
+    private int deferredCount = 0;
+    
+    /**
+     * Whether or not the waiting restores have changed since they were last
+     * saved.
+     */
+    private boolean isDirty = false;
+    
+    /**
+     * The file the waiting restores are saved to, or <code>null</code> until
+     * they are loaded.
+     */
+    private String filePath;
+    
+    private long restoredCount = 0;
+    
+    private long batchedCount = 0;
+    
+    private long appliedOnLoadCount = 0;
+    
+    private int lastBatchSize = 0;
+    
+    /**
+     * Restores the given block to the given type, whatever it has become.
+     * 
+     * @param block
+     * @param type 
+     */
+    public void restore(Block block, Material type) {
+        restore(block, null, type, (byte) 0, true, null);
+    }
+    
+    /**
+     * Restores the given block to the given type if it is still of the
+     * expected type.
+     * 
+     * @param block
+     * @param expected
+     *          The type the spell effect left the block as.
+     * @param type 
+     */
+    public void restore(Block block, Material expected, Material type) {
+        restore(block, expected, type, (byte) 0, true, null);
+    }
+    
+    /**
+     * Restores the given block to the given type if it is still of the
+     * expected type, then spawns an entity of the given type on it.
+     * 
+     * @param block
+     * @param expected
+     *          The type the spell effect left the block as.
+     * @param type
+     * @param spawned 
+     *          The type of entity to spawn once the block is restored.
+     */
+    public void restore(Block block, Material expected, Material type, EntityType spawned) {
+        restore(block, expected, type, (byte) 0, true, spawned);
+    }
+    
+    /**
+     * Restores the given block to the given type and data if it is still of
+     * the expected type.
+     * 
+     * @param block
+     * @param expected
+     *          The type the spell effect left the block as, or <code>null</code>
+     *          to restore the block whatever it has become.
+     * @param type
+     * @param data
+     * @param applyPhysics
+     *          Whether or not neighbouring blocks are updated. Ignored inside a
+     *          batch or once the block's chunk has unloaded, which never apply
+     *          physics.
+     */
+    public void restore(Block block, Material expected, Material type, byte data, boolean applyPhysics) {
+        restore(block, expected, type, data, applyPhysics, null);
+    }
+    
+    private void restore(Block block, Material expected, Material type, byte data, boolean applyPhysics, EntityType spawned) {
+        World world = block.getWorld();
+        
+        // Only coordinates are read from the block, since anything more
+        // would load its chunk.
+        if (!world.isChunkLoaded(block.getX() >> 4, block.getZ() >> 4)) {
+            defer(new Restore(world.getUID(), block.getX(), block.getY(), block.getZ(), expected, type, data, spawned));
+        } else if (batchDepth > 0) {
+            pending.add(new Restore(world.getUID(), block.getX(), block.getY(), block.getZ(), expected, type, data, spawned));
+        } else {
+            apply(block, expected, type, data, applyPhysics, spawned);
+        }
+    }
+    
+    /**
+     * Opens a batch. Restores are queued until every open batch has ended.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+    
+    /**
+     * Ends a batch, applying the queued restores if it was the outermost.
+     * 
+     * @return
+     *          The number of blocks restored.
+     */
+    public int endBatch() {
+        if (batchDepth == 0 || --batchDepth > 0) {
+            return 0;
+        }
+        
+        int restored = 0;
+        
+        for (int i = 0; i < pending.size(); i++) {
+            Restore restore = pending.get(i);
+            World world = Bukkit.getWorld(restore.worldId);
+            
+            if (world == null || !world.isChunkLoaded(restore.x >> 4, restore.z >> 4)) {
+                defer(restore);
+            } else if (apply(world.getBlockAt(restore.x, restore.y, restore.z), restore.expected, restore.type,
+                             restore.data, false, restore.spawned)) {
+                restored++;
+            }
+        }
+        
+        pending.clear();
+        lastBatchSize = restored;
+        batchedCount += restored;
+        
+        return restored;
+    }
+    
+    /**
+     * @return
+     *          <code>true</code> if the block was restored.
+     */
+    private boolean apply(Block block, Material expected, Material type, byte data, boolean applyPhysics, EntityType spawned) {
+        if (expected != null && block.getType() != expected) {
+            return false;
+        }
+        
+        if (data == 0) {
+            block.setType(type, applyPhysics);
+        } else {
+            block.setTypeIdAndData(type.getId(), data, applyPhysics);
+        }
+        
+        if (spawned != null) {
+            block.getWorld().spawnEntity(block.getLocation().add(0.5, 0, 0.5), spawned);
+        }
+        
+        restoredCount++;
+        return true;
+    }
+    
+    /**
+     * Holds the given restore until its chunk loads.
+     * 
+     * @param restore 
+     */
+    private void defer(Restore restore) {
+        HashMap<Long, List<Restore>> chunks = deferred.get(restore.worldId);
+        
+        if (chunks == null) {
+            chunks = new HashMap<>();
+            deferred.put(restore.worldId, chunks);
+        }
+        
+        Long key = chunkKey(restore.x >> 4, restore.z >> 4);
+        List<Restore> inChunk = chunks.get(key);
+        
+        if (inChunk == null) {
+            inChunk = new ArrayList<>();
+            chunks.put(key, inChunk);
+        }
+        
+        inChunk.add(restore);
+        deferredCount++;
+        isDirty = true;
+    }
+    
+    /**
+     * Applies the restores waiting for the given chunk, which must be loaded.
+     * 
+     * @param chunk
+     * 
+     * @return
+     *          The number of blocks restored.
+     */
+    private int applyDeferred(Chunk chunk) {
+        HashMap<Long, List<Restore>> chunks = deferred.get(chunk.getWorld().getUID());
+        
+        if (chunks == null) {
+            return 0;
+        }
+        
+        List<Restore> inChunk = chunks.remove(chunkKey(chunk.getX(), chunk.getZ()));
+        
+        if (inChunk == null) {
+            return 0;
+        }
+        
+        if (chunks.isEmpty()) {
+            deferred.remove(chunk.getWorld().getUID());
+        }
+        
+        int restored = 0;
+        
+        for (Restore restore : inChunk) {
+            if (apply(chunk.getBlock(restore.x & 15, restore.y, restore.z & 15), restore.expected, restore.type,
+                      restore.data, false, restore.spawned)) {
+                restored++;
+            }
+        }
+        
+        deferredCount -= inChunk.size();
+        appliedOnLoadCount += restored;
+        isDirty = true;
+        
+        return restored;
+    }
+    
+    /**
+     * @param chunkX
+     * @param chunkZ
+     * 
+     * @return
+     *          The key of the given chunk in <code>deferred</code>.
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Reads the restores left waiting when the plugin was last disabled, then
+     * applies those whose chunks are already loaded. The file is only rewritten
+     * if some were applied. Later saves go to the same file.
+     * 
+     * @param filePath 
+     */
+    public void load(String filePath) {
+        this.filePath = filePath;
+        
+        List<String> lines = Loader.readFile(filePath);
+        
+        if (lines == null) {
+            return;
+        }
+        
+        for (String line : lines) {
+            Restore restore = Restore.fromLine(line);
+            
+            if (restore != null) {
+                defer(restore);
+            }
+        }
+        
+        // The file already holds what was just read.
+        isDirty = false;
+        
+        // Chunks loaded before the plugin was enabled fire no load events.
+        for (World world : Bukkit.getWorlds()) {
+            HashMap<Long, List<Restore>> chunks = deferred.get(world.getUID());
+            
+            if (chunks == null) {
+                continue;
+            }
+            
+            for (Long key : new ArrayList<>(chunks.keySet())) {
+                int chunkX = (int) (key >> 32);
+                int chunkZ = key.intValue();
+                
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    applyDeferred(world.getChunkAt(chunkX, chunkZ));
+                }
+            }
+        }
+        
+        save();
+    }
+    
+    /**
+     * Writes the restores still waiting for their chunks to the file they
+     * were loaded from, if they have changed.
+     * 
+     * @return
+     *          <code>true</code> if the restores are saved.
+     */
+    public boolean save() {
+        if (filePath == null || !isDirty) {
+            return !isDirty;
+        }
+        
+        List<String> lines = new ArrayList<>(deferredCount);
+        
+        for (Map<Long, List<Restore>> chunks : deferred.values()) {
+            for (List<Restore> inChunk : chunks.values()) {
+                for (Restore restore : inChunk) {
+                    lines.add(restore.toLine());
+                }
+            }
+        }
+        
+        isDirty = !Saver.saveLines(filePath, lines);
+        return !isDirty;
+    }
+    
+    /**
+     * @return
+     *          The number of blocks restored.
+     */
+    public long getRestoredCount() {
+        return restoredCount;
+    }
+    
+    /**
+     * @return
+     *          The number of blocks restored in batches.
+     */
+    public long getBatchedCount() {
+        return batchedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of blocks restored by the last batch.
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+    
+    /**
+     * @return
+     *          The number of restores waiting for their chunks to load.
+     */
+    public int getDeferredCount() {
+        return deferredCount;
+    }
+    
+    /**
+     * @return
+     *          The number of blocks restored as their chunks loaded.
+     */
+    public long getAppliedOnLoadCount() {
+        return appliedOnLoadCount;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent load) {
+        if (deferredCount > 0) {
+            applyDeferred(load.getChunk());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldSave(WorldSaveEvent worldSave) {
+        save();
+    }
+    
+}
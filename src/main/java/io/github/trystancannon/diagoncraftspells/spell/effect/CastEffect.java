@@ -23,13 +23,9 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
-import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Spell;
 
-import org.bukkit.entity.LivingEntity;
-import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
 
 /**
  * Cast effects represent spell effects which require the caster as well as
@@ -62,31 +58,14 @@ public final class CastEffect extends SpellEffect {
         return spell.getName() + " Caster";
     }
     
+    /**
+     * @return
+     *          <code>false</code>: The caster is not told about their own
+     *          cast effects.
+     */
     @Override
-    public void start() {
-        if (getEntity() instanceof Player) {
-            Wizard wizard = DiagonCraftSpellsPlugin.getWizard(((Player) getEntity()).getUniqueId());
-            
-            if (wizard != null) {
-                wizard.addEffect(this);
-            }
-        }
-        
-        produceAddEvent();
-    }
-    
-    @Override
-    public void remove() {
-        if (getEntity() instanceof Player) {
-            Wizard wizard = DiagonCraftSpellsPlugin.getWizard(((Player) getEntity()).getUniqueId());
-            
-            if (wizard != null) {
-                wizard.removeEffectFromList(this);
-            }
-        }
-        
-        setRemoved(true);
-        produceEndEvent();
+    protected boolean isAnnounced() {
+        return false;
     }
 
     /**
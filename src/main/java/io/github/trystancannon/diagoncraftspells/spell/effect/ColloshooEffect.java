@@ -54,8 +54,7 @@ public class ColloshooEffect extends SpellEffect {
     }
     
     @Override
-    public void remove() {
-        super.remove();
+    protected void onRemove() {
         getEntity().removePotionEffect(PotionEffectType.SLOW);
     }
     
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import io.github.trystancannon.diagoncraftspells.player.Wizard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * An <code>AreaEffect</code> which owns the change it makes to each of its
+ * blocks, rather than starting a separate effect per block.
+ * 
+ * The whole area is started and removed as one effect: it produces a single
+ * add event and a single end event, each carrying every block changed, and
+ * has a single expiry once its life span has passed.
+ * 
+ * @param <S>
+ *          The state recorded when a block is changed, used to restore it.
+ * 
+ * @author Trystan Cannon
+ */
+public abstract class CompositeAreaEffect<S> extends AreaEffect {
+    
+    /**
+     * The number of server ticks after starting for which the effect lasts.
+     */
+    private final int lifeSpan;
+    
+    /**
+     * The blocks changed when the effect was started.
+     */
+    private final List<Block> changedBlocks = new ArrayList<>();
+    
+    /**
+     * The state recorded for each block in <code>changedBlocks</code>, at the
+     * same index.
+     */
+    private final List<S> changedStates = new ArrayList<>();
+    
+    public CompositeAreaEffect(String name, Plugin plugin, Location blockLocation, Wizard caster, int radius, int lifeSpan) {
+        super(name, plugin, blockLocation, caster, radius);
+        this.lifeSpan = lifeSpan;
+    }
+    
+    /**
+     * Changes the given block, if the effect applies to it.
+     * 
+     * @param block
+     *          The block to change.
+     * 
+     * @return
+     *          The state needed to restore the block, or <code>null</code> if
+     *          the block was left unchanged.
+     */
+    protected abstract S apply(Block block);
+    
+    /**
+     * Restores a block changed by <code>apply</code>.
+     * 
+     * @param block
+     *          The block to restore.
+     * @param state
+     *          The state returned by <code>apply</code> for the block.
+     */
+    protected abstract void revert(Block block, S state);
+    
+    /**
+     * Applies the effect to every block in the area. The effect is only
+     * started, and so only expires, if at least one block changed.
+     */
+    @Override
+    public void start() {
+        for (Block block : getAffectedBlocks()) {
+            S state = apply(block);
+            
+            if (state != null) {
+                changedBlocks.add(block);
+                changedStates.add(state);
+            }
+        }
+        
+        if (!changedBlocks.isEmpty()) {
+            super.start();
+        }
+    }
+    
+    /**
+     * Ends the effect once its life span has passed.
+     */
+    @Override
+    public void run() {
+        if (!isRemoved()) {
+            remove();
+        }
+    }
+    
+    /**
+     * Restores every changed block before producing the end event.
+     */
+    @Override
+    protected void onRemove() {
+        for (int i = 0; i < changedBlocks.size(); i++) {
+            revert(changedBlocks.get(i), changedStates.get(i));
+        }
+    }
+    
+    /**
+     * @return
+     *          The blocks changed when the effect was started.
+     */
+    @Override
+    public List<Block> getChangedBlocks() {
+        return Collections.unmodifiableList(changedBlocks);
+    }
+    
+    /**
+     * @return
+     *          The number of server ticks after starting for which the effect
+     *          lasts.
+     */
+    @Override
+    public int getLifeSpan() {
+        return lifeSpan;
+    }
+    
+}
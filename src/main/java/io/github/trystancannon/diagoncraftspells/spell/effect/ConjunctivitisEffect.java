@@ -63,9 +63,8 @@ public final class ConjunctivitisEffect extends SpellEffect {
      *      those created by the conjunctivitis spell!
      */
     @Override
-    public void remove() {
+    protected void onRemove() {
         getPlayerAffected().removePotionEffect(PotionEffectType.CONFUSION);
-        super.remove();
     }
     
     /**
@@ -26,7 +26,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Crucio;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
 
@@ -45,38 +44,73 @@ public class CrucioEffect extends SpellEffect {
     
     /**
      * The number of ticks between each execution of the effect's <code>run</code> method.
-     * 
-     * Begins at negative 20 so, after the initial execution, the effect will
-     * have lived for 0 ticks.
      */
-    public static final int INTERVAL_LENGTH = -20;
+    public static final int INTERVAL_LENGTH = 20;
     
     /**
-     * The number of ticks for which this effect has been active.
+     * The damage done on each execution of the effect's <code>run</code> method.
      */
-    private int ticksLived = 0;
+    public static final double DAMAGE = 4;
+    
+    /**
+     * The most life spans the curse may have left after being cast again.
+     */
+    public static final int MAX_STACKS = 3;
     
     public CrucioEffect(Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         super(Crucio.NAME, plugin, entityAffected, caster);
     }
     
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
+    /**
+     * @return
+     *          <code>INTERVAL_LENGTH</code>.
+     */
+    @Override
+    public int getPeriod() {
+        return INTERVAL_LENGTH;
+    }
+    
+    /**
+     * @return
+     *          <code>EXTEND</code>: casting Crucio again prolongs the curse
+     *          already on the target.
+     */
+    @Override
+    public StackingPolicy getStackingPolicy() {
+        return StackingPolicy.EXTEND;
+    }
+    
+    /**
+     * @return
+     *          <code>MAX_STACKS</code>.
+     */
+    @Override
+    public int getMaxStacks() {
+        return MAX_STACKS;
+    }
+    
     @Override
     public void start() {
         super.start();
-        run();
+        
+        if (isActive()) {
+            run();
+        }
     }
     
     @Override
     public void run() {
-        if (ticksLived < LIFE_SPAN) {
-            getEntity().damage(4);
-            ticksLived += 20;
-            
-            Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 20);
-        }
-        
         if (!isRemoved()) {
-            remove();
+            getEntity().damage(DAMAGE);
         }
     }
     
@@ -30,8 +30,6 @@ import pgDev.bukkit.DisguiseCraft.api.PlayerUndisguiseEvent;
 import pgDev.bukkit.DisguiseCraft.disguise.Disguise;
 
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 import pgDev.bukkit.DisguiseCraft.api.DisguiseCraftAPI;
 import pgDev.bukkit.DisguiseCraft.disguise.DisguiseType;
@@ -45,39 +43,39 @@ import pgDev.bukkit.DisguiseCraft.disguise.DisguiseType;
  * 
  * @author Trystan Cannon
  */
-public abstract class DisguiseEffect extends SpellEffect implements Listener {
+public abstract class DisguiseEffect extends SpellEffect {
 
     public DisguiseEffect(String name, Plugin plugin, Player playerAffected, Wizard caster) {
         super(name, plugin, playerAffected, caster);
     }
     
     /**
-     * Registers the <code>DisguiseEffect</code> for events.
+     * Registers the <code>DisguiseEffect</code> for undisguise events.
      */
     @Override
     public void start() {
         super.start();
-        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
+        addHandler(getPlayerAffected().getUniqueId(), PlayerUndisguiseEvent.class, new EffectHandler<PlayerUndisguiseEvent>() {
+            @Override
+            public void handle(PlayerUndisguiseEvent undisguise) {
+                onPlayerUndisguise(undisguise);
+            }
+        });
     }
     
     /**
      * Removes the disguise from the player affected.
      */
     @Override
-    public void remove() {
-        super.remove();
-        
-        // Remove the disguise if the player is disguised, and the effect has been started.
-        if (hasStarted() && DiagonCraftSpellsPlugin.getDisguiseAPI().isDisguised(getPlayerAffected())) {
+    protected void onRemove() {
+        // Remove the disguise if the player is still disguised.
+        if (DiagonCraftSpellsPlugin.getDisguiseAPI().isDisguised(getPlayerAffected())) {
             DiagonCraftSpellsPlugin.getDisguiseAPI().undisguisePlayer(getPlayerAffected());
         }
     }
     
-    @EventHandler
     public void onPlayerUndisguise(PlayerUndisguiseEvent undisguise) {
-        if (hasStarted() && !isRemoved() && undisguise.getPlayer().getUniqueId().equals(getPlayerAffected().getUniqueId())) {
-            remove();
-        }
+        remove();
     }
     
     /**
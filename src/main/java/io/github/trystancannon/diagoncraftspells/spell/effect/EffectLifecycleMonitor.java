@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+/**
+ * Counts how spell effects move through their lives, and the mistakes made
+ * along the way, so effects which misbehave on long running servers can be
+ * found.
+ * 
+ * All methods MUST be called from the main server thread.
+ * 
+ * @author Trystan Cannon
+ */
+public final class EffectLifecycleMonitor {
+    
+    private long startedCount = 0;
+    
+    private long endedCount = 0;
+    
+    private long redundantStartCount = 0;
+    
+    private long doubleRemovalCount = 0;
+    
+    private long cancelledTaskCount = 0;
+    
+    private long lateScheduleCount = 0;
+    
+    private long leakedCount = 0;
+    
+    private long mergedCount = 0;
+    
+    void recordStart() {
+        startedCount++;
+    }
+    
+    void recordEnd() {
+        endedCount++;
+    }
+    
+    void recordRedundantStart() {
+        redundantStartCount++;
+    }
+    
+    void recordDoubleRemoval() {
+        doubleRemovalCount++;
+    }
+    
+    void recordCancelledTasks(int count) {
+        cancelledTaskCount += count;
+    }
+    
+    void recordLateSchedule() {
+        lateScheduleCount++;
+    }
+    
+    void recordLeak() {
+        leakedCount++;
+    }
+    
+    void recordMerge() {
+        mergedCount++;
+    }
+    
+    /**
+     * @return
+     *          The number of effects which have started but not yet ended.
+     */
+    public long getActiveCount() {
+        return startedCount - endedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of effects which have been started.
+     */
+    public long getStartedCount() {
+        return startedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of started effects which have ended.
+     */
+    public long getEndedCount() {
+        return endedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of times an effect was started when it already had been.
+     */
+    public long getRedundantStartCount() {
+        return redundantStartCount;
+    }
+    
+    /**
+     * @return
+     *          The number of times an effect was removed when it already had been.
+     */
+    public long getDoubleRemovalCount() {
+        return doubleRemovalCount;
+    }
+    
+    /**
+     * @return
+     *          The number of tasks which effects still had waiting to run when
+     *          they ended, and which were cancelled for them.
+     */
+    public long getCancelledTaskCount() {
+        return cancelledTaskCount;
+    }
+    
+    /**
+     * @return
+     *          The number of times an effect tried to schedule a task after it
+     *          had ended. These tasks are never scheduled.
+     */
+    public long getLateScheduleCount() {
+        return lateScheduleCount;
+    }
+    
+    /**
+     * @return
+     *          The number of effects found still holding a timer, periodic run,
+     *          task or event handler once they had ended.
+     */
+    public long getLeakedCount() {
+        return leakedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of effects dropped when started because an effect of
+     *          their type was already on the entity, per its stacking policy.
+     */
+    public long getMergedCount() {
+        return mergedCount;
+    }
+    
+}
@@ -0,0 +1,242 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import io.github.trystancannon.diagoncraftspells.event.SpellEventBus;
+import io.github.trystancannon.diagoncraftspells.event.SpellEventSubscriber;
+import io.github.trystancannon.diagoncraftspells.event.SpellProjectileCollideEntityEvent;
+
+import pgDev.bukkit.DisguiseCraft.api.PlayerUndisguiseEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerToggleFlightEvent;
+
+/**
+ * The single listener through which spell effects handle Bukkit events.
+ * 
+ * Rather than registering themselves with Bukkit, effects register an
+ * <code>EffectHandler</code> for each type of event they care about, keyed by
+ * the unique id of the entity whose events they want. Each event is then
+ * handed only to the live effects registered for the entity it concerns, and
+ * an effect's handlers are dropped as soon as it is removed.
+ * 
+ * Movement is constrained by the <code>MovementConstraintService</code>
+ * instead, which acts on moves far more sparingly, and blocks placed by
+ * effects are kept by the <code>ProtectedBlockIndex</code>.
+ * 
+ * Every event dispatched here is called on the main thread, where handlers
+ * are also registered and unregistered. Each entity's handlers are kept in a
+ * copy on write list because a handler may end its own effect, or start
+ * another, while the event is being dispatched; the dispatch carries on over
+ * the handlers as they were when it began. Chat is handled by the
+ * <code>MuteRegistry</code>.
+ * 
+ * @author Trystan Cannon
+ */
+public final class EffectListenerRegistry implements Listener {
+    
+    /**
+     * The registered handlers, by event type, then by the unique id of the
+     * entity they were registered for.
+     */
+    private final HashMap<Class<?>, HashMap<UUID, CopyOnWriteArrayList<Registration>>> handlers = new HashMap<>();
+    
+    /**
+     * The number of handlers currently registered.
+     */
+    private int handlerCount = 0;
+    
+    /**
+     * Registers a handler for the given effect. The handler is called for
+     * events of the given type concerning the given key until the effect is
+     * removed.
+     * 
+     * @param effect
+     *          The effect on whose behalf the handler acts.
+     * @param key
+     *          The unique id of the entity whose events are handled.
+     * @param eventType
+     *          The type of event handled. Must be one dispatched by this registry.
+     * @param handler
+     *          The handler to call.
+     */
+    public <E extends Event> void register(SpellEffect effect, UUID key, Class<E> eventType, EffectHandler<E> handler) {
+        HashMap<UUID, CopyOnWriteArrayList<Registration>> byKey = handlers.get(eventType);
+        
+        if (byKey == null) {
+            byKey = new HashMap<>();
+            handlers.put(eventType, byKey);
+        }
+        
+        CopyOnWriteArrayList<Registration> registrations = byKey.get(key);
+        
+        if (registrations == null) {
+            registrations = new CopyOnWriteArrayList<>();
+            byKey.put(key, registrations);
+        }
+        
+        Registration registration = new Registration(effect, key, eventType, handler);
+        
+        registrations.add(registration);
+        
+        if (effect.listenerRegistrations == null) {
+            effect.listenerRegistrations = new ArrayList<>();
+        }
+        
+        effect.listenerRegistrations.add(registration);
+        handlerCount++;
+    }
+    
+    /**
+     * Drops every handler registered for the given effect. Called when the
+     * effect is removed.
+     * 
+     * @param effect 
+     */
+    public void unregisterAll(SpellEffect effect) {
+        if (effect.listenerRegistrations == null) {
+            return;
+        }
+        
+        for (Registration registration : effect.listenerRegistrations) {
+            HashMap<UUID, CopyOnWriteArrayList<Registration>> byKey = handlers.get(registration.eventType);
+            CopyOnWriteArrayList<Registration> registrations = byKey.get(registration.key);
+            
+            if (registrations != null && registrations.remove(registration)) {
+                handlerCount--;
+                
+                if (registrations.isEmpty()) {
+                    byKey.remove(registration.key);
+                }
+            }
+        }
+        
+        effect.listenerRegistrations = null;
+    }
+    
+    /**
+     * @return
+     *          The number of handlers currently registered.
+     */
+    public int getHandlerCount() {
+        return handlerCount;
+    }
+    
+    /**
+     * @return
+     *          The number of entities which currently have handlers registered
+     *          for them.
+     */
+    public int getKeyCount() {
+        int keys = 0;
+        
+        for (HashMap<UUID, CopyOnWriteArrayList<Registration>> byKey : handlers.values()) {
+            keys += byKey.size();
+        }
+        
+        return keys;
+    }
+    
+    /**
+     * Hands the event to every live effect registered for it under the given key.
+     */
+    @SuppressWarnings("unchecked")
+    private <E extends Event> void dispatch(Class<E> eventType, UUID key, E event) {
+        HashMap<UUID, CopyOnWriteArrayList<Registration>> byKey = handlers.get(eventType);
+        
+        if (byKey == null) {
+            return;
+        }
+        
+        List<Registration> registrations = byKey.get(key);
+        
+        if (registrations == null) {
+            return;
+        }
+        
+        for (Registration registration : registrations) {
+            if (!registration.effect.isRemoved()) {
+                ((EffectHandler<E>) registration.handler).handle(event);
+            }
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerToggleFlight(PlayerToggleFlightEvent toggle) {
+        dispatch(PlayerToggleFlightEvent.class, toggle.getPlayer().getUniqueId(), toggle);
+    }
+    
+    @EventHandler
+    public void onPlayerUndisguise(PlayerUndisguiseEvent undisguise) {
+        dispatch(PlayerUndisguiseEvent.class, undisguise.getPlayer().getUniqueId(), undisguise);
+    }
+    
+    /**
+     * Subscribes the registry to the collision events posted through the
+     * given bus, at the <code>MONITOR</code> priority, so effects which
+     * protect an entity from spells get the last word on its collisions.
+     * 
+     * @param bus 
+     */
+    public void subscribe(SpellEventBus bus) {
+        bus.subscribe(SpellProjectileCollideEntityEvent.class, EventPriority.MONITOR, new SpellEventSubscriber<SpellProjectileCollideEntityEvent>() {
+            @Override
+            public void handle(SpellProjectileCollideEntityEvent collision) {
+                dispatch(SpellProjectileCollideEntityEvent.class, collision.getEntity().getUniqueId(), collision);
+            }
+        });
+    }
+    
+    /**
+     * A handler registered for one effect, kept so that it can be found again
+     * when the effect is removed.
+     */
+    static final class Registration {
+        
+        private final SpellEffect effect;
+        
+        private final UUID key;
+        
+        private final Class<?> eventType;
+        
+        private final EffectHandler<?> handler;
+        
+        private Registration(SpellEffect effect, UUID key, Class<?> eventType, EffectHandler<?> handler) {
+            this.effect = effect;
+            this.key = key;
+            this.eventType = eventType;
+            this.handler = handler;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,233 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * Keeps every active spell effect, and the effects on each living entity
+ * keyed by entity id, whether or not the entity is a wizard.
+ * 
+ * Effects are added when they start and taken out when they are removed. An
+ * entity's effects are removed when it dies or when its chunk unloads, so an
+ * effect never outlives the entity it affects. Only used on the main thread.
+ * 
+ * @author Trystan Cannon
+ */
+public final class EffectTable implements Listener {
+    
+    /**
+     * The effects on each entity, by entity id. An entity only has an entry
+     * while at least one effect is on it.
+     */
+    private final HashMap<Integer, List<SpellEffect>> effectsByEntity = new HashMap<>();
+    
+    /**
+     * Every active effect, including those which affect no entity, in the
+     * order they started.
+     */
+    private final LinkedHashSet<SpellEffect> activeEffects = new LinkedHashSet<>();
+    
+    /**
+     * The number of effects in the table.
+     */
+    private int effectCount;
+    
+    /**
+     * The number of effects removed because their entity died or unloaded.
+     */
+    private long clearedCount;
+    
+    /**
+     * Adds the given started effect to the table.
+     * 
+     * @param effect 
+     */
+    void add(SpellEffect effect) {
+        activeEffects.add(effect);
+        
+        if (effect.getEntity() == null) {
+            return;
+        }
+        
+        int entityId = effect.getEntity().getEntityId();
+        List<SpellEffect> effects = effectsByEntity.get(entityId);
+        
+        if (effects == null) {
+            effects = new ArrayList<>(1);
+            effectsByEntity.put(entityId, effects);
+        }
+        
+        effects.add(effect);
+        effectCount++;
+    }
+    
+    /**
+     * Takes the given removed effect out of the table.
+     * 
+     * @param effect 
+     */
+    void remove(SpellEffect effect) {
+        activeEffects.remove(effect);
+        
+        if (effect.getEntity() == null) {
+            return;
+        }
+        
+        int entityId = effect.getEntity().getEntityId();
+        List<SpellEffect> effects = effectsByEntity.get(entityId);
+        
+        if (effects == null || !effects.remove(effect)) {
+            return;
+        }
+        
+        if (effects.isEmpty()) {
+            effectsByEntity.remove(entityId);
+        }
+        
+        effectCount--;
+    }
+    
+    /**
+     * @param entity
+     * 
+     * @return
+     *          A read-only view of the effects on the given entity. Empty if
+     *          there are none. It MUST NOT be iterated while removing effects.
+     */
+    public List<SpellEffect> getEffects(Entity entity) {
+        List<SpellEffect> effects = effectsByEntity.get(entity.getEntityId());
+        
+        if (effects == null) {
+            return Collections.<SpellEffect>emptyList();
+        }
+        
+        return Collections.unmodifiableList(effects);
+    }
+    
+    /**
+     * @return
+     *          A read-only view of every active effect. It MUST NOT be iterated
+     *          while removing effects.
+     */
+    public Set<SpellEffect> getActiveEffects() {
+        return Collections.unmodifiableSet(activeEffects);
+    }
+    
+    /**
+     * @param entity
+     * 
+     * @return
+     *          <code>true</code> if at least one effect is on the given entity.
+     */
+    public boolean hasEffects(Entity entity) {
+        return effectsByEntity.containsKey(entity.getEntityId());
+    }
+    
+    /**
+     * Removes every effect on the given entity, calling <code>remove</code>
+     * on each.
+     * 
+     * @param entity
+     * 
+     * @return
+     *          The number of effects removed.
+     */
+    public int removeEffects(Entity entity) {
+        List<SpellEffect> effects = effectsByEntity.get(entity.getEntityId());
+        
+        if (effects == null) {
+            return 0;
+        }
+        
+        // Each removal takes the effect out of the list, so work from a copy.
+        SpellEffect[] snapshot = effects.toArray(new SpellEffect[effects.size()]);
+        int removed = 0;
+        
+        for (SpellEffect effect : snapshot) {
+            if (!effect.isRemoved()) {
+                effect.remove();
+                removed++;
+            }
+        }
+        
+        return removed;
+    }
+    
+    /**
+     * @return
+     *          The number of effects on all entities.
+     */
+    public int getEffectCount() {
+        return effectCount;
+    }
+    
+    /**
+     * @return
+     *          The number of entities with at least one effect on them.
+     */
+    public int getEntityCount() {
+        return effectsByEntity.size();
+    }
+    
+    /**
+     * @return
+     *          The number of effects removed because their entity died or its
+     *          chunk unloaded.
+     */
+    public long getClearedCount() {
+        return clearedCount;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent death) {
+        clearedCount += removeEffects(death.getEntity());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent unload) {
+        if (effectsByEntity.isEmpty()) {
+            return;
+        }
+        
+        for (Entity entity : unload.getChunk().getEntities()) {
+            if (entity instanceof LivingEntity) {
+                clearedCount += removeEffects(entity);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Ends spell effects in bulk: those on a player who logs out, along with
+ * those they cast which need them, those in a world being unloaded, and every
+ * effect when the plugin is disabled.
+ * 
+ * Each teardown ends its effects in one pass inside a block restoring batch,
+ * so their blocks are put back together, and logs how long it took. Player
+ * state, such as fly speed, is restored by each effect as it ends.
+ * 
+ * @author Trystan Cannon
+ */
+public final class EffectTeardown implements Listener {
+    
+    private final Plugin plugin;
+    
+    private long teardownCount = 0;
+    
+    private long endedCount = 0;
+    
+    private long lastTeardownNanos = 0;
+    
+    public EffectTeardown(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Ends every active spell effect.
+     * 
+     * @return
+     *          The number of effects ended.
+     */
+    public int endAll() {
+        return end(DiagonCraftSpellsPlugin.getEffectTable().getActiveEffects(), "in all worlds");
+    }
+    
+    /**
+     * Ends every spell effect on the given player, and every effect they cast
+     * which needs its caster online.
+     * 
+     * @param player
+     * 
+     * @return
+     *          The number of effects ended.
+     */
+    public int endFor(Player player) {
+        List<SpellEffect> forPlayer = new ArrayList<>(DiagonCraftSpellsPlugin.getEffectTable().getEffects(player));
+        
+        for (SpellEffect effect : DiagonCraftSpellsPlugin.getEffectTable().getActiveEffects()) {
+            // Any already on the player are skipped once ended.
+            if (effect.isCasterNeeded() && effect.getCaster() != null && player.getUniqueId().equals(effect.getCaster().getUniqueId())) {
+                forPlayer.add(effect);
+            }
+        }
+        
+        return end(forPlayer, "on or cast by " + player.getName());
+    }
+    
+    /**
+     * Ends every spell effect in the given world.
+     * 
+     * @param world
+     * 
+     * @return
+     *          The number of effects ended.
+     */
+    public int endIn(World world) {
+        List<SpellEffect> inWorld = new ArrayList<>();
+        
+        for (SpellEffect effect : DiagonCraftSpellsPlugin.getEffectTable().getActiveEffects()) {
+            if (world.equals(effect.getWorld())) {
+                inWorld.add(effect);
+            }
+        }
+        
+        return end(inWorld, "in " + world.getName());
+    }
+    
+    /**
+     * Ends the given effects in one block restoring batch.
+     * 
+     * @param effects
+     *          The effects to end. May be a view of effects which remove
+     *          themselves from it, so it is copied first.
+     * @param scope
+     *          Where the effects were, for the log.
+     * 
+     * @return
+     *          The number of effects ended.
+     */
+    private int end(Collection<SpellEffect> effects, String scope) {
+        if (effects.isEmpty()) {
+            return 0;
+        }
+        
+        long startTime = System.nanoTime();
+        SpellEffect[] snapshot = effects.toArray(new SpellEffect[effects.size()]);
+        BlockRestorer restorer = DiagonCraftSpellsPlugin.getBlockRestorer();
+        int ended = 0;
+        int restored;
+        
+        restorer.beginBatch();
+        
+        try {
+            for (SpellEffect effect : snapshot) {
+                if (effect.isRemoved()) {
+                    continue;
+                }
+                
+                // One effect failing to end must not leave the rest behind.
+                try {
+                    effect.remove();
+                    ended++;
+                } catch (RuntimeException failure) {
+                    plugin.getLogger().log(Level.WARNING, "Could not end the spell effect " + effect.getName() + " " + scope + ".", failure);
+                }
+            }
+        } finally {
+            restored = restorer.endBatch();
+        }
+        
+        lastTeardownNanos = System.nanoTime() - startTime;
+        teardownCount++;
+        endedCount += ended;
+        
+        plugin.getLogger().info("Ended " + ended + " spell effects " + scope + " and restored " + restored + " blocks in "
+                                + lastTeardownNanos / 1E6 + " ms.");
+        
+        return ended;
+    }
+    
+    /**
+     * @return
+     *          The number of teardowns which had effects to end.
+     */
+    public long getTeardownCount() {
+        return teardownCount;
+    }
+    
+    /**
+     * @return
+     *          The number of effects ended by teardowns.
+     */
+    public long getEndedCount() {
+        return endedCount;
+    }
+    
+    /**
+     * @return
+     *          The time the last teardown took, in nanoseconds.
+     */
+    public long getLastTeardownNanos() {
+        return lastTeardownNanos;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent quit) {
+        endFor(quit.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent unload) {
+        endIn(unload.getWorld());
+    }
+    
+}
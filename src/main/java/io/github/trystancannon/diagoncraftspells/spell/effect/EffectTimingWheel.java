@@ -0,0 +1,236 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import java.util.ArrayList;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Ends spell effects once their life spans have passed, driven by a single
+ * repeating task rather than one scheduled task per effect.
+ * 
+ * Timers are kept in a hashed wheel of <code>SLOT_COUNT</code> slots, each a
+ * linked list of the timers due on ticks which fall into it. Scheduling and
+ * cancelling a timer are constant time, and each tick only visits the timers
+ * in one slot. An effect holds its own timer, so it is cancelled by the effect
+ * alone.
+ * 
+ * The repeating task only runs while there are timers pending. All methods
+ * MUST be called from the main server thread.
+ * 
+ * @author Trystan Cannon
+ */
+public final class EffectTimingWheel implements Runnable {
+    
+    /**
+     * The number of slots in the wheel. Always a power of two, so a tick is
+     * mapped to its slot with <code>SLOT_MASK</code>.
+     */
+    public static final int SLOT_COUNT = 512;
+    
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    
+    /**
+     * A pending expiry for one effect, linked into the slot of the tick it is
+     * due on.
+     */
+    static final class Timer {
+        
+        private final SpellEffect effect;
+        
+        private final long deadline;
+        
+        private Timer previous;
+        
+        private Timer next;
+        
+        private Timer(SpellEffect effect, long deadline) {
+            this.effect = effect;
+            this.deadline = deadline;
+        }
+        
+    }
+    
+    private final Plugin plugin;
+    
+    /**
+     * The first timer in each slot, or <code>null</code> if the slot is empty.
+     */
+    private final Timer[] slots = new Timer[SLOT_COUNT];
+    
+    /**
+     * The timers which came due on the current tick, kept between ticks so
+     * it is not reallocated.
+     */
+    private final ArrayList<Timer> due = new ArrayList<>();
+    
+    /**
+     * The number of ticks the wheel has turned.
+     */
+    private long tick = 0;
+    
+    private int pendingCount = 0;
+    
+    private long expiredCount = 0;
+    
+    /**
+     * The id of the repeating task turning the wheel, or -1 if it is not
+     * running.
+     */
+    private int taskId = -1;
+    
+    public EffectTimingWheel(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Schedules the given effect to expire after the given number of ticks,
+     * replacing any expiry it already has.
+     * 
+     * @param effect
+     * @param delay 
+     *          The number of server ticks until the effect expires. At least one.
+     */
+    public void schedule(SpellEffect effect, int delay) {
+        cancel(effect);
+        
+        Timer timer = new Timer(effect, tick + Math.max(1, delay));
+        int slot = (int) (timer.deadline & SLOT_MASK);
+        
+        timer.next = slots[slot];
+        
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        
+        slots[slot] = timer;
+        effect.expiryTimer = timer;
+        pendingCount++;
+        
+        if (taskId == -1) {
+            taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+        }
+    }
+    
+    /**
+     * Cancels the pending expiry of the given effect, if it has one.
+     * 
+     * @param effect 
+     */
+    public void cancel(SpellEffect effect) {
+        Timer timer = effect.expiryTimer;
+        
+        if (timer != null) {
+            unlink(timer);
+        }
+    }
+    
+    /**
+     * @param effect
+     * 
+     * @return
+     *          The number of ticks until the given effect expires, or 0 if it
+     *          has no pending expiry.
+     */
+    public int getRemaining(SpellEffect effect) {
+        Timer timer = effect.expiryTimer;
+        return timer != null ? (int) (timer.deadline - tick) : 0;
+    }
+    
+    /**
+     * Removes the given timer from its slot.
+     * 
+     * @param timer 
+     */
+    private void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[(int) (timer.deadline & SLOT_MASK)] = timer.next;
+        }
+        
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        
+        timer.previous = null;
+        timer.next = null;
+        timer.effect.expiryTimer = null;
+        pendingCount--;
+    }
+    
+    /**
+     * Turns the wheel by one tick, expiring every effect due on it.
+     */
+    @Override
+    public void run() {
+        tick++;
+        
+        // Timers a whole turn or more away share the slot, so only take those
+        // which are due. They are unlinked first, because expiring an effect
+        // can cancel the timers of others.
+        Timer timer = slots[(int) (tick & SLOT_MASK)];
+        
+        while (timer != null) {
+            Timer next = timer.next;
+            
+            if (timer.deadline <= tick) {
+                unlink(timer);
+                due.add(timer);
+            }
+            
+            timer = next;
+        }
+        
+        for (int i = 0; i < due.size(); i++) {
+            expiredCount++;
+            due.get(i).effect.expire();
+        }
+        
+        due.clear();
+        
+        if (pendingCount == 0 && taskId != -1) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+    }
+    
+    /**
+     * @return
+     *          The number of effects waiting to expire.
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+    
+    /**
+     * @return
+     *          The number of effects expired by the wheel.
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+    
+}
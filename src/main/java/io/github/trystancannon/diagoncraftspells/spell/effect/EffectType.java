@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The interned type of a spell effect, shared by every effect with the same
+ * name. Types are compared by identity, so they are cheap keys for indexing
+ * effects.
+ * 
+ * @author Trystan Cannon
+ */
+public final class EffectType {
+    
+    /**
+     * Every type interned so far, by effect name.
+     */
+    private static final ConcurrentHashMap<String, EffectType> types = new ConcurrentHashMap<>();
+    
+    private static final AtomicInteger nextId = new AtomicInteger();
+    
+    private final String name;
+    
+    private final int id;
+    
+    private EffectType(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+    
+    /**
+     * Gets the type for the given effect name, interning a new one if there is
+     * none yet.
+     * 
+     * @param name
+     * 
+     * @return
+     *          The type of the effects with the given name.
+     */
+    public static EffectType of(String name) {
+        EffectType type = types.get(name);
+        
+        if (type == null) {
+            EffectType interned = new EffectType(name, nextId.getAndIncrement());
+            
+            type = types.putIfAbsent(name, interned);
+            
+            if (type == null) {
+                type = interned;
+            }
+        }
+        
+        return type;
+    }
+    
+    /**
+     * @param name
+     * 
+     * @return
+     *          The type for the given effect name, or <code>null</code> if no
+     *          effect with that name has been created.
+     */
+    public static EffectType find(String name) {
+        return types.get(name);
+    }
+    
+    /**
+     * @return
+     *          The name shared by effects of this type.
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * @return
+     *          The number assigned to this type when it was interned.
+     */
+    public int getId() {
+        return id;
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+}
@@ -28,7 +28,6 @@ import io.github.trystancannon.diagoncraftspells.spell.Entomorphis;
 
 import pgDev.bukkit.DisguiseCraft.disguise.DisguiseType;
 
-import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -45,39 +44,32 @@ public class EntomorphisEffect extends DisguiseEffect {
      */
     public static final int LIFE_SPAN = 1200;
     
-    /**
-     * The task id for the scheduled removal task.
-     */
-    private int removalTaskId = -1;
-    
     public EntomorphisEffect(Plugin plugin, Wizard caster) {
         super(Entomorphis.NAME, plugin, caster.getPlayer(), caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
         
         disguisePlayer(DisguiseType.Spider);
-        removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
     }
     
     @Override
     public void run() {
         // The removal taks runs:
         if (!isRemoved()) {
-            removalTaskId = -1;
             remove();
         }
     }
     
-    @Override
-    public void remove() {
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-        }
-        
-        super.remove();
-    }
-    
 }
@@ -26,7 +26,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.FiendFyre;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
 
@@ -40,10 +39,25 @@ import org.bukkit.plugin.Plugin;
  */
 public final class FiendFyreEffect extends SpellEffect {
     
+    /**
+     * The number of server ticks between each check that the entity is still
+     * on fire.
+     */
+    public static final int UPDATE_INTERVAL = 1;
+    
     public FiendFyreEffect(Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         super(FiendFyre.NAME, plugin, entityAffected, caster);
     }
 
+    /**
+     * @return
+     *          <code>UPDATE_INTERVAL</code>.
+     */
+    @Override
+    public int getPeriod() {
+        return UPDATE_INTERVAL;
+    }
+    
     @Override
     public void start() {
         // The entity will be on fire forever unless they quench the flame.
@@ -62,23 +76,18 @@ public final class FiendFyreEffect extends SpellEffect {
      */
     @Override
     public void run() {
-        if (getEntity().getFireTicks() > 0 && !getEntity().isDead()) {
-            Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 1L);
-        // If the event hasn't been manually removed, then remove it from
-        // the entity.
-        } else if (!isRemoved()) {
+        // If the flame has gone out and the effect hasn't been manually
+        // removed, then remove it from the entity.
+        if ((getEntity().getFireTicks() <= 0 || getEntity().isDead()) && !isRemoved()) {
             remove();
         }
     }
     
     /**
-     * Removes the fire from the affected entity and produces the proper
-     * <code>SpellEffectEndEvent</code> as well as removing the effect from
-     * the affected wizard, if any.
+     * Removes the fire from the affected entity.
      */
     @Override
-    public void remove() {
-        super.remove();
+    protected void onRemove() {
         getEntity().setFireTicks(0);
     }
     
@@ -26,7 +26,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Firestorm;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Effect;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -42,14 +41,32 @@ public class FirestormEffect extends SpellEffect {
 
     public static final int EFFECT_RADIUS = 4;
     
+    /**
+     * The number of server ticks between each burst of flames: half a second.
+     */
+    public static final int UPDATE_INTERVAL = 10;
+    
     public FirestormEffect(Plugin plugin, Wizard caster) {
         super(Firestorm.NAME, plugin, caster.getPlayer(), caster);
     }
 
+    /**
+     * @return
+     *          <code>UPDATE_INTERVAL</code>.
+     */
     @Override
-    public void start() {
-        super.start();
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 1L);
+    public int getPeriod() {
+        return UPDATE_INTERVAL;
+    }
+    
+    /**
+     * @return
+     *          1, so that the first flames come within a period of the effect
+     *          starting, since it does not run as it starts.
+     */
+    @Override
+    public int getInitialDelay() {
+        return 1;
     }
     
     @Override
@@ -71,9 +88,6 @@ public class FirestormEffect extends SpellEffect {
                 }
             }
         }
-        
-        // Reschedule this method to run every half second.
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 10L);
     }
     
 }
@@ -26,7 +26,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Fumos;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Effect;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
@@ -38,11 +37,25 @@ import org.bukkit.util.Vector;
  * @author Trystan Cannon
  */
 public class FumosEffect extends SpellEffect {
+    
+    /**
+     * The number of server ticks between each puff of smoke.
+     */
+    public static final int UPDATE_INTERVAL = 1;
 
     public FumosEffect(Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         super(Fumos.NAME, plugin, entityAffected, caster);
     }
     
+    /**
+     * @return
+     *          <code>UPDATE_INTERVAL</code>.
+     */
+    @Override
+    public int getPeriod() {
+        return UPDATE_INTERVAL;
+    }
+    
     @Override
     public void run() {
         // Create the cloud of smoke as long as the effect hasn't yet been removed.
@@ -51,8 +64,6 @@ public class FumosEffect extends SpellEffect {
             // origin and appears over the player.
             getEntity().getWorld().playEffect(getEntity().getLocation().add(new Vector(0, 0, 1)), Effect.SMOKE, 100);
             getEntity().getWorld().playEffect(getEntity().getEyeLocation().add(new Vector(0, 0, 1)), Effect.SMOKE, 100);
-            
-            Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 1L);
         }
     }
     
@@ -26,53 +26,31 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Glacius;
 
-import java.util.ArrayList;
-import java.util.List;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.plugin.Plugin;
 
 /**
- * Performs the <code>GlaciusEffect</code> across an area of water.
+ * Freezes the water in a square area as one effect. The ice thaws all at once
+ * after <code>GlaciusEffect.LIFE_SPAN</code> ticks.
  * 
  * @author Trystan Cannon (tccannon@live.com)
  */
-public class GlaciusAreaEffect extends AreaEffect {
-    
-    private final List<GlaciusEffect> effects;
+public class GlaciusAreaEffect extends CompositeAreaEffect<Material> {
     
     public GlaciusAreaEffect(Plugin plugin, Location blockLocation, Wizard caster, int radius) {
-        super(Glacius.NAME + ". r = " + radius, plugin, blockLocation, caster, radius);
-        effects = new ArrayList<>();
-    }
-
-    @Override
-    public void start() {
-        super.start();
-        
-        for (Block affectedBlock : getAffectedBlocks()) {
-            GlaciusEffect effect = new GlaciusEffect(getPlugin(), affectedBlock.getLocation(), getCaster());
-            effect.start();
-            
-            effects.add(effect);
-        }
+        super(Glacius.NAME + ". r = " + radius, plugin, blockLocation, caster, radius, GlaciusEffect.LIFE_SPAN);
     }
     
     @Override
-    public void run() {
+    protected Material apply(Block block) {
+        return GlaciusEffect.freeze(block);
     }
     
     @Override
-    public void remove() {
-        super.remove();
-        
-        if (hasStarted()) {
-            for (GlaciusEffect effect : effects) {
-                if (effect.hasStarted() && !effect.isRemoved()) {
-                    effect.remove();
-                }
-            }
-        }
+    protected void revert(Block block, Material waterType) {
+        GlaciusEffect.thaw(block, waterType);
     }
     
 }
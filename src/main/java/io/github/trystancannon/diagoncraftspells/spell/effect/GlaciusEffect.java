@@ -23,12 +23,15 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Glacius;
 
-import org.bukkit.Bukkit;
+import java.util.Collections;
+import java.util.List;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -46,14 +49,59 @@ public class GlaciusEffect extends LocationEffect {
         public static final int LIFE_SPAN = 200;
         
         /**
-         * Whether or not the water block replaced is of material type
-         * STATIONARY_WATER. This is used for resetting purposes.
+         * The type of water replaced by the ice, used for resetting purposes.
+         * <code>null</code> until the block has been frozen.
          */
-        private final boolean isStationary;
+        private Material waterType;
     
         public GlaciusEffect(Plugin plugin, Location blockLocation, Wizard caster) {
             super(Glacius.NAME, plugin, blockLocation, caster);
-            this.isStationary = blockLocation.getBlock().getType() == Material.STATIONARY_WATER;
+        }
+        
+        /**
+         * Freezes the given block into protected ice if it is water.
+         * 
+         * @param block
+         *          The block to freeze.
+         * 
+         * @return
+         *          The type of water frozen, or <code>null</code> if the block
+         *          was not water.
+         */
+        static Material freeze(Block block) {
+            Material type = block.getType();
+            
+            if (type != Material.WATER && type != Material.STATIONARY_WATER) {
+                return null;
+            }
+            
+            block.setType(Material.ICE);
+            DiagonCraftSpellsPlugin.getProtectedBlocks().protect(block);
+            
+            return type;
+        }
+        
+        /**
+         * Returns a block frozen by <code>freeze</code> to water, if it is
+         * still ice.
+         * 
+         * @param block
+         *          The block to thaw.
+         * @param waterType
+         *          The type of water which was frozen.
+         */
+        static void thaw(Block block, Material waterType) {
+            DiagonCraftSpellsPlugin.getProtectedBlocks().unprotect(block);
+            DiagonCraftSpellsPlugin.getBlockRestorer().restore(block, Material.ICE, waterType);
+        }
+        
+        /**
+         * @return
+         *          <code>LIFE_SPAN</code>.
+         */
+        @Override
+        public int getLifeSpan() {
+            return LIFE_SPAN;
         }
         
         /**
@@ -62,12 +110,10 @@ public class GlaciusEffect extends LocationEffect {
          */
         @Override
         public void start() {
-            // Ensure that the blocks are water, of course.
-            if (getBlock().getType() == Material.WATER || getBlock().getType() == Material.STATIONARY_WATER) {
-                // Freeze the block and begin the scheduled checks.
-                getBlock().setType(Material.ICE);
-                Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
-
+            // Freeze the block, if it is water, and begin the scheduled checks.
+            waterType = freeze(getBlock());
+            
+            if (waterType != null) {
                 super.start();
             }
         }
@@ -78,26 +124,23 @@ public class GlaciusEffect extends LocationEffect {
          */
         @Override
         public void run() {
-            resetBlock();
-            
             if (!isRemoved()) {
                 remove();
             }
         }
         
         @Override
-        public void remove() {
-            super.remove();
-            resetBlock();
+        protected void onRemove() {
+            thaw(getBlock(), waterType);
         }
         
         /**
-         * Resets the water block to its original state if it is currently ice.
+         * @return
+         *          The frozen block, once the effect has started.
          */
-        private void resetBlock() {
-            if (getBlock().getType() == Material.ICE) {
-                getBlock().setType(isStationary ? Material.STATIONARY_WATER : Material.WATER);
-            }
+        @Override
+        public List<Block> getChangedBlocks() {
+            return hasStarted() ? Collections.singletonList(getBlock()) : super.getChangedBlocks();
         }
     
 }
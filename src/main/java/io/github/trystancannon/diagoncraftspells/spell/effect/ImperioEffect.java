@@ -27,11 +27,7 @@ import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Imperio;
 
-import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -40,7 +36,7 @@ import org.bukkit.plugin.Plugin;
  * 
  * @author Trystan Cannon
  */
-public class ImperioEffect extends SpellEffect implements Listener {
+public class ImperioEffect extends SpellEffect {
     
     /**
      * Whether or not the victim was allowed flight when the effect began.
@@ -59,7 +55,6 @@ public class ImperioEffect extends SpellEffect implements Listener {
     
     public ImperioEffect(Plugin plugin, Player victim, Wizard caster) {
         super(Imperio.NAME, plugin, victim, caster);
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
     
     @Override
@@ -74,33 +69,28 @@ public class ImperioEffect extends SpellEffect implements Listener {
         getVictim().setAllowFlight(true);
         getVictim().setFlying(true);
         getVictim().setFlySpeed(0);
+        
+        DiagonCraftSpellsPlugin.getMovementConstraints().puppet(getCaster().getPlayer(), victim, this);
     }
     
     @Override
-    public void remove() {
-        super.remove();
+    protected void onRemove() {
         Player victim = getVictim();
         
+        DiagonCraftSpellsPlugin.getMovementConstraints().release(getCaster().getUniqueId(), this);
+        
         victim.setAllowFlight(wasAllowedFlight);
         victim.setFlying(wasFlying);
         victim.setFlySpeed(initialSpeed);
     }
     
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent move) {
-        Wizard wizard = DiagonCraftSpellsPlugin.getWizard(move.getPlayer().getUniqueId());
-        
-        if (!isRemoved() && wizard != null && wizard.getUniqueId().equals(getCaster().getUniqueId()) && !getEntity().isDead()) {
-            Player caster = move.getPlayer();
-            Player victim = getVictim();
-            
-            Location location = caster.getLocation();
-            location.add(location.getDirection().multiply(3));
-            location.setDirection(getEntity().getLocation().getDirection());
-            
-            victim.teleport(location);
-            victim.setFallDistance(0);
-        }
+    /**
+     * @return
+     *          <code>true</code>, as the victim is moved by the caster.
+     */
+    @Override
+    public boolean isCasterNeeded() {
+        return true;
     }
     
     /**
@@ -25,7 +25,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Lapifors;
-import org.bukkit.Bukkit;
 
 import org.bukkit.plugin.Plugin;
 import pgDev.bukkit.DisguiseCraft.disguise.DisguiseType;
@@ -39,36 +38,31 @@ public class LapiforsEffect extends DisguiseEffect {
 
     public static final int LIFE_SPAN = 1200;
     
-    private int removalTaskId = -1;
-    
     public LapiforsEffect(Plugin plugin, Wizard caster) {
         super(Lapifors.NAME, plugin, caster.getPlayer(), caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
         
         disguisePlayer(DisguiseType.Silverfish);
-        removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
     }
     
     @Override
     public void run() {
         if (hasStarted() && !isRemoved()) {
-            removalTaskId = -1;
             remove();
         }
     }
     
-    @Override
-    public void remove() {
-        super.remove();
-        
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-            removalTaskId = -1;
-        }
-    }
-    
 }
@@ -23,14 +23,12 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Levicorpus;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerToggleFlightEvent;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
@@ -42,7 +40,7 @@ import org.bukkit.util.Vector;
  * 
  * @author Trystan Cannon
  */
-public final class LevicorpusEffect extends SpellEffect implements Listener {
+public final class LevicorpusEffect extends SpellEffect {
 
     /**
      * The number of server ticks for which the effect lasts.
@@ -78,16 +76,20 @@ public final class LevicorpusEffect extends SpellEffect implements Listener {
      */
     private boolean isAllowedFlight;
     
-    /**
-     * The task id for the task which, if not manually removed, will remove
-     * the effect from the player. This is needed to cancel the event properly.
-     */
-    private int removalTaskId = -1;
-    
     public LevicorpusEffect(Plugin plugin, Wizard caster) {
         super(Levicorpus.NAME, plugin, caster.getPlayer(), caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code> counted from when the caster is held in
+     *          place, <code>RUN_DELAY</code> ticks after starting.
+     */
+    @Override
+    public int getLifeSpan() {
+        return RUN_DELAY + LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
@@ -95,8 +97,13 @@ public final class LevicorpusEffect extends SpellEffect implements Listener {
         // Launch the caster into the air.
         getEntity().setVelocity(new Vector(0, 5, 0));
         // Stick them there.
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, RUN_DELAY);
-        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
+        runLater(RUN_DELAY);
+        addHandler(getEntity().getUniqueId(), PlayerToggleFlightEvent.class, new EffectHandler<PlayerToggleFlightEvent>() {
+            @Override
+            public void handle(PlayerToggleFlightEvent event) {
+                onPlayerToggleFlight(event);
+            }
+        });
     }
     
     /**
@@ -105,12 +112,9 @@ public final class LevicorpusEffect extends SpellEffect implements Listener {
      * 
      * @param event 
      */
-    @EventHandler
     public void onPlayerToggleFlight(PlayerToggleFlightEvent event) {
-        if (hasStarted() && !isRemoved() && event.getPlayer().getUniqueId().equals(getCaster().getPlayer().getUniqueId())) {
-            event.setCancelled(true);
-            event.getPlayer().teleport(getCaster().getPlayer().getLocation());
-        }
+        event.setCancelled(true);
+        event.getPlayer().teleport(getCaster().getPlayer().getLocation());
     }
     
     /**
@@ -119,9 +123,8 @@ public final class LevicorpusEffect extends SpellEffect implements Listener {
      */
     @Override
     public void run() {
-        // Initialize the location at which the player will stay if this is
-        // the first run.
-        if (floatLocation == null) {
+        // Initialize the location at which the player will stay.
+        if (floatLocation == null && !isRemoved()) {
             floatLocation = getEntity().getLocation();
             
             initialFlySpeed = getPlayer().getFlySpeed();
@@ -132,24 +135,14 @@ public final class LevicorpusEffect extends SpellEffect implements Listener {
             getPlayer().setAllowFlight(true);
             getPlayer().setFlying(true);
             getPlayer().setFlySpeed(0);
-            
-            // Setup the task to remove the effect.
-            removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
-            return;
+            DiagonCraftSpellsPlugin.getMovementConstraints().anchor(getPlayer(), floatLocation, this);
         }
-        
-        // Effect will have reached the end of its life span at this point.
-        remove();
     }
     
     @Override
-    public void remove() {
+    protected void onRemove() {
+        DiagonCraftSpellsPlugin.getMovementConstraints().release(getPlayer().getUniqueId(), this);
         resetPlayer();
-        super.remove();
-        
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-        }
     }
     
     /**
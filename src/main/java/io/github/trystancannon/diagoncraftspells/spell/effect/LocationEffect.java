@@ -26,6 +26,7 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.plugin.Plugin;
 
@@ -40,11 +41,18 @@ public abstract class LocationEffect extends SpellEffect {
     /**
      * The location of the block which is to be affected.
      */
-    private final Location blockLocation;
+    private Location blockLocation;
+    
+    /**
+     * The block being affected, looked up once while its chunk is loaded so
+     * that reaching it later never loads the chunk again.
+     */
+    private Block block;
     
     public LocationEffect(String name, Plugin plugin, Location blockLocation, Wizard caster) {
         super(name, plugin, null, caster);
         this.blockLocation = blockLocation;
+        this.block = blockLocation.getBlock();
     }
     
     /**
@@ -52,7 +60,7 @@ public abstract class LocationEffect extends SpellEffect {
      *          The block being affected.
      */
     public Block getBlock() {
-        return blockLocation.getBlock();
+        return block;
     }
     
     /**
@@ -63,6 +71,15 @@ public abstract class LocationEffect extends SpellEffect {
         return blockLocation;
     }
     
+    /**
+     * @return
+     *          The world of the block being affected.
+     */
+    @Override
+    public World getWorld() {
+        return blockLocation.getWorld();
+    }
+    
     /**
      * Changes the block this effect is affecting.
      * 
@@ -70,6 +87,8 @@ public abstract class LocationEffect extends SpellEffect {
      *          The new block to affect.
      */
     protected void setBlock(Block block) {
+        this.blockLocation = block.getLocation();
+        this.block = block;
     }
     
 }
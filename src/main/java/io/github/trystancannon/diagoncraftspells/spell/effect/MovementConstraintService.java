@@ -0,0 +1,410 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * The single <code>PlayerMoveEvent</code> handler behind every spell effect
+ * which constrains how a player moves.
+ * 
+ * Constraints are kept by the unique id of the player whose movement drives
+ * them, so a move by any other player is dismissed with one lookup. A player
+ * may drive several constraints, one for each effect imposing one, and every
+ * one of them is enforced. A move is
+ * only acted on when it takes the player into another block, or, for a
+ * puppeteer, when they turn. Corrections are not made during the move itself:
+ * each constrained player is teleported at most once per tick, to wherever the
+ * latest move says they should be.
+ * 
+ * @author Trystan Cannon
+ */
+public final class MovementConstraintService implements Listener, Runnable {
+    
+    /**
+     * The number of blocks in front of a puppeteer at which their puppet is held.
+     */
+    public static final double PUPPET_DISTANCE = 3;
+    
+    private final Plugin plugin;
+    
+    /**
+     * The constraints in place, by the unique id of the player whose movement
+     * drives each. A player only has an entry while they drive at least one.
+     */
+    private final HashMap<UUID, List<Constraint>> constraints = new HashMap<>();
+    
+    private int constraintCount = 0;
+    
+    /**
+     * The constraints with a correction waiting for the next tick.
+     */
+    private final ArrayList<Constraint> pending = new ArrayList<>();
+    
+    /**
+     * The id of the task which will apply the pending corrections, or -1 if
+     * none is scheduled.
+     */
+    private int flushTaskId = -1;
+    
+    private long teleportCount = 0;
+    
+    /**
+     * The number of moves by constrained players which needed no correction.
+     */
+    private long ignoredMoveCount = 0;
+    
+    /**
+     * The number of corrections folded into one already waiting.
+     */
+    private long coalescedCount = 0;
+    
+    public MovementConstraintService(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Holds the given player in the block they are standing in.
+     * 
+     * @param player
+     *          The player to freeze.
+     * @param owner
+     *          The effect imposing the constraint.
+     */
+    public void freeze(Player player, SpellEffect owner) {
+        add(new Constraint(MovementConstraint.FROZEN, owner, player, player, player.getLocation()));
+    }
+    
+    /**
+     * Holds the given player at the given location.
+     * 
+     * @param player
+     *          The player to anchor.
+     * @param anchor
+     *          The location at which to hold them.
+     * @param owner
+     *          The effect imposing the constraint.
+     */
+    public void anchor(Player player, Location anchor, SpellEffect owner) {
+        add(new Constraint(MovementConstraint.ANCHORED, owner, player, player, anchor.clone()));
+    }
+    
+    /**
+     * Holds the given puppet in front of the given puppeteer as they move.
+     * 
+     * @param puppeteer
+     *          The player whose movement drives the puppet.
+     * @param puppet
+     *          The player moved.
+     * @param owner
+     *          The effect imposing the constraint.
+     */
+    public void puppet(Player puppeteer, Player puppet, SpellEffect owner) {
+        Constraint constraint = new Constraint(MovementConstraint.PUPPET, owner, puppeteer, puppet, null);
+        
+        constraint.track(puppeteer.getLocation());
+        add(constraint);
+    }
+    
+    /**
+     * Puts the given constraint in place alongside any others its driver
+     * already has. An owner imposing a second constraint on the same driver
+     * replaces its first.
+     * 
+     * @param constraint 
+     */
+    private void add(Constraint constraint) {
+        UUID driverId = constraint.driver.getUniqueId();
+        List<Constraint> driven = constraints.get(driverId);
+        
+        if (driven == null) {
+            driven = new ArrayList<>(1);
+            constraints.put(driverId, driven);
+        }
+        
+        removeOwned(driven, constraint.owner);
+        driven.add(constraint);
+        constraintCount++;
+    }
+    
+    /**
+     * Lifts the constraint driven by the given player which was imposed by
+     * the given effect, leaving any others on the player in place.
+     * 
+     * @param playerId
+     *          The unique id of the player whose movement drives the constraint.
+     * @param owner
+     *          The effect which imposed the constraint.
+     */
+    public void release(UUID playerId, SpellEffect owner) {
+        List<Constraint> driven = constraints.get(playerId);
+        
+        if (driven == null) {
+            return;
+        }
+        
+        removeOwned(driven, owner);
+        
+        if (driven.isEmpty()) {
+            constraints.remove(playerId);
+        }
+    }
+    
+    /**
+     * Removes the constraint imposed by the given effect from the given list,
+     * if there is one.
+     * 
+     * @param driven
+     * @param owner 
+     */
+    private void removeOwned(List<Constraint> driven, SpellEffect owner) {
+        for (int i = 0; i < driven.size(); i++) {
+            Constraint constraint = driven.get(i);
+            
+            if (constraint.owner == owner) {
+                constraint.isReleased = true;
+                driven.remove(i);
+                constraintCount--;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * @param playerId
+     * @return
+     *          The kinds of constraint driven by the given player's movement,
+     *          in the order they were imposed. Empty if there are none.
+     */
+    public List<MovementConstraint> getConstraints(UUID playerId) {
+        List<MovementConstraint> types = new ArrayList<>();
+        List<Constraint> driven = constraints.get(playerId);
+        
+        if (driven != null) {
+            for (Constraint constraint : driven) {
+                types.add(constraint.type);
+            }
+        }
+        
+        return types;
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent move) {
+        if (constraints.isEmpty()) {
+            return;
+        }
+        
+        List<Constraint> driven = constraints.get(move.getPlayer().getUniqueId());
+        
+        if (driven == null) {
+            return;
+        }
+        
+        Location to = move.getTo();
+        
+        for (int i = 0; i < driven.size(); i++) {
+            Constraint constraint = driven.get(i);
+            boolean needsCorrection;
+            
+            if (constraint.type == MovementConstraint.PUPPET) {
+                needsCorrection = constraint.hasMovedFrom(to);
+                constraint.track(to);
+            } else {
+                // The anchor block is tracked, so this is true for as long as
+                // the player is out of it.
+                needsCorrection = constraint.isOutsideBlock(to);
+            }
+            
+            if (!needsCorrection) {
+                ignoredMoveCount++;
+            } else if (constraint.isPending) {
+                coalescedCount++;
+            } else {
+                constraint.isPending = true;
+                pending.add(constraint);
+                
+                if (flushTaskId == -1) {
+                    flushTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, this);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Applies the pending corrections, teleporting each constrained player
+     * once.
+     */
+    @Override
+    public void run() {
+        flushTaskId = -1;
+        
+        for (Constraint constraint : pending) {
+            constraint.isPending = false;
+            
+            if (constraint.isReleased || !constraint.subject.isOnline() || constraint.subject.isDead()) {
+                continue;
+            }
+            
+            Location destination;
+            
+            if (constraint.type == MovementConstraint.PUPPET) {
+                destination = constraint.driver.getLocation();
+                destination.add(destination.getDirection().multiply(PUPPET_DISTANCE));
+                destination.setDirection(constraint.subject.getLocation().getDirection());
+            } else {
+                Location current = constraint.subject.getLocation();
+                
+                if (!constraint.isOutsideBlock(current)) {
+                    continue;
+                }
+                
+                destination = constraint.anchor.clone();
+                destination.setYaw(current.getYaw());
+                destination.setPitch(current.getPitch());
+            }
+            
+            constraint.subject.teleport(destination);
+            constraint.subject.setFallDistance(0);
+            teleportCount++;
+        }
+        
+        pending.clear();
+    }
+    
+    /**
+     * @return
+     *          The number of constraints in place.
+     */
+    public int getConstraintCount() {
+        return constraintCount;
+    }
+    
+    /**
+     * @return
+     *          The number of corrective teleports made.
+     */
+    public long getTeleportCount() {
+        return teleportCount;
+    }
+    
+    /**
+     * @return
+     *          The number of moves by constrained players which needed no correction.
+     */
+    public long getIgnoredMoveCount() {
+        return ignoredMoveCount;
+    }
+    
+    /**
+     * @return
+     *          The number of corrections folded into one already waiting for
+     *          the next tick.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+    
+    /**
+     * A constraint on one player, along with the position and rotation last
+     * acted upon.
+     */
+    private static final class Constraint {
+        
+        private final MovementConstraint type;
+        
+        private final SpellEffect owner;
+        
+        /**
+         * The player whose movement drives the constraint.
+         */
+        private final Player driver;
+        
+        /**
+         * The player who is teleported to enforce the constraint.
+         */
+        private final Player subject;
+        
+        /**
+         * Where the subject is held. <code>null</code> for puppets.
+         */
+        private final Location anchor;
+        
+        private int blockX;
+        private int blockY;
+        private int blockZ;
+        
+        private float yaw;
+        private float pitch;
+        
+        private boolean isPending = false;
+        
+        /**
+         * Whether or not the constraint has been lifted, so a correction
+         * still waiting for it is skipped.
+         */
+        private boolean isReleased = false;
+        
+        private Constraint(MovementConstraint type, SpellEffect owner, Player driver, Player subject, Location anchor) {
+            this.type = type;
+            this.owner = owner;
+            this.driver = driver;
+            this.subject = subject;
+            this.anchor = anchor;
+            
+            if (anchor != null) {
+                track(anchor);
+            }
+        }
+        
+        private void track(Location location) {
+            blockX = location.getBlockX();
+            blockY = location.getBlockY();
+            blockZ = location.getBlockZ();
+            yaw = location.getYaw();
+            pitch = location.getPitch();
+        }
+        
+        private boolean isOutsideBlock(Location location) {
+            return location.getBlockX() != blockX || location.getBlockY() != blockY || location.getBlockZ() != blockZ;
+        }
+        
+        private boolean hasMovedFrom(Location location) {
+            return isOutsideBlock(location) || location.getYaw() != yaw || location.getPitch() != pitch;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+/**
+ * Keeps the players who may not chat, and cancels their chat.
+ * 
+ * Chat events arrive on the server's chat threads, so the muted players are
+ * kept in a concurrent set which those threads read without locking. Only the
+ * main thread changes the set, as effects start and end. Each chat message
+ * costs one lookup, however many players have been muted.
+ * 
+ * @author Trystan Cannon
+ */
+public final class MuteRegistry implements Listener {
+    
+    /**
+     * The players who may not chat. Read from chat threads.
+     */
+    private final Set<UUID> mutedPlayers = Collections.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+    
+    /**
+     * How many effects are muting each player. Only used on the main thread.
+     */
+    private final HashMap<UUID, Integer> muteCounts = new HashMap<>();
+    
+    /**
+     * Mutes the given player until every mute placed on them is lifted.
+     * Must be called from the main thread.
+     * 
+     * @param playerId 
+     */
+    public void mute(UUID playerId) {
+        Integer count = muteCounts.get(playerId);
+        
+        muteCounts.put(playerId, count == null ? 1 : count + 1);
+        mutedPlayers.add(playerId);
+    }
+    
+    /**
+     * Lifts one mute placed on the given player. Must be called from the
+     * main thread.
+     * 
+     * @param playerId 
+     */
+    public void unmute(UUID playerId) {
+        Integer count = muteCounts.get(playerId);
+        
+        if (count == null) {
+            return;
+        }
+        
+        if (count > 1) {
+            muteCounts.put(playerId, count - 1);
+        } else {
+            muteCounts.remove(playerId);
+            mutedPlayers.remove(playerId);
+        }
+    }
+    
+    /**
+     * @param playerId
+     * @return
+     *          Whether or not the given player may not chat. Safe to call from
+     *          any thread.
+     */
+    public boolean isMuted(UUID playerId) {
+        return mutedPlayers.contains(playerId);
+    }
+    
+    /**
+     * @return
+     *          The number of players who may not chat.
+     */
+    public int getMutedCount() {
+        return mutedPlayers.size();
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onPlayerChat(AsyncPlayerChatEvent chat) {
+        if (mutedPlayers.contains(chat.getPlayer().getUniqueId())) {
+            chat.setCancelled(true);
+        }
+    }
+    
+}
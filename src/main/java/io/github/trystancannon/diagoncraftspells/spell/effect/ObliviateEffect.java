@@ -30,7 +30,6 @@ import io.github.trystancannon.diagoncraftspells.spell.Spell;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
@@ -62,6 +61,15 @@ public class ObliviateEffect extends SpellEffect {
         super(Obliviate.NAME, plugin, wizardAffected.getPlayer(), caster);
     }
 
+    /**
+     * @return
+     *          <code>RUN_DELAY_INTERVAL</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return RUN_DELAY_INTERVAL;
+    }
+    
     @Override
     public void start() {
         super.start();
@@ -77,7 +85,6 @@ public class ObliviateEffect extends SpellEffect {
         // selected spell.
         getAffectedWizard().getKnownSpells().clear();
         getAffectedWizard().setSelectedSpell(null);
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, RUN_DELAY_INTERVAL);
     }
     
     @Override
@@ -88,9 +95,7 @@ public class ObliviateEffect extends SpellEffect {
     }
     
     @Override
-    public void remove() {
-        super.remove();
-        
+    protected void onRemove() {
         // Restore all spells that the player knows.
         getAffectedWizard().getKnownSpells().addAll(knownSpells);
         getAffectedWizard().setSelectedSpell(selectedSpell);
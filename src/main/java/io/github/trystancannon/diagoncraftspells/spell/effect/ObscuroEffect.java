@@ -25,7 +25,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Obscuro;
-import org.bukkit.Bukkit;
 
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -48,14 +47,21 @@ public class ObscuroEffect extends SpellEffect {
         super(Obscuro.NAME, plugin, playerAffected, caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
         
         getEntity().addPotionEffect(new PotionEffect(PotionEffectType.CONFUSION, LIFE_SPAN, 1));
         getEntity().addPotionEffect(new PotionEffect(PotionEffectType.BLINDNESS, LIFE_SPAN, 1));
-        
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
     }
     
     @Override
@@ -66,9 +72,7 @@ public class ObscuroEffect extends SpellEffect {
     }
     
     @Override
-    public void remove() {
-        super.remove();
-        
+    protected void onRemove() {
         getEntity().removePotionEffect(PotionEffectType.CONFUSION);
         getEntity().removePotionEffect(PotionEffectType.BLINDNESS);
     }
@@ -23,17 +23,14 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Orchideous;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.TreeSpecies;
 import org.bukkit.block.BlockState;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.LeavesDecayEvent;
 import org.bukkit.material.Tree;
 import org.bukkit.plugin.Plugin;
 
@@ -44,21 +41,26 @@ import org.bukkit.plugin.Plugin;
  *
  * @author Trystan Cannon (tccannon@live.com)
  */
-public class OrchideousEffect extends LocationEffect implements Listener {
+public class OrchideousEffect extends LocationEffect {
 
     public static final int LIFE_SPAN = 1000;
 
-    private int removalTaskId = -1;
-
     public OrchideousEffect(Plugin plugin, Location blockLocation, Wizard caster) {
         super(Orchideous.NAME, plugin, blockLocation, caster);
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
-        removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
 
         getBlock().setType(Material.LEAVES);
         BlockState state = getBlock().getState();
@@ -68,35 +70,22 @@ public class OrchideousEffect extends LocationEffect implements Listener {
 
         state.setData(leaf);
         state.update(true);
-    }
-
-    @EventHandler
-    public void onLeafDecay(LeavesDecayEvent decay) {
-        if (decay.getBlock().equals(getBlock())) {
-            decay.setCancelled(true);
-        }
+        
+        DiagonCraftSpellsPlugin.getProtectedBlocks().protect(getBlock());
     }
 
     @Override
     public void run() {
         if (!isRemoved()) {
-            removalTaskId = -1;
             remove();
         }
     }
 
     @Override
-    public void remove() {
-        super.remove();
-
-        if (hasStarted() && getBlock().getType() == Material.LEAVES) {
-            getBlock().setType(Material.AIR);
-        }
+    protected void onRemove() {
+        DiagonCraftSpellsPlugin.getProtectedBlocks().unprotect(getBlock());
         
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-            removalTaskId = -1;
-        }
+        DiagonCraftSpellsPlugin.getBlockRestorer().restore(getBlock(), Material.LEAVES, Material.AIR);
     }
 
 }
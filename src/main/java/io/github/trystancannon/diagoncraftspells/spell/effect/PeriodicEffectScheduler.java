@@ -0,0 +1,474 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeMap;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Runs spell effects which repeat on a fixed period, driven by a single
+ * repeating task rather than each effect rescheduling itself.
+ * 
+ * Effects are grouped by period. Each group has one phase per tick of its
+ * period, and a new effect joins the phase with the fewest members, so effects
+ * started on the same tick do not all run on the same ticks afterwards. An
+ * effect is first run on its phase at least a full period after it starts,
+ * and never once its life span has passed.
+ * 
+ * Each tick, groups are run from the shortest period to the longest. Once
+ * the tick's work budget is spent, the effects still due are carried over to
+ * the start of the next tick. The time spent running each group is kept for
+ * reporting.
+ * 
+ * The repeating task only runs while there are effects to run. All methods
+ * MUST be called from the main server thread.
+ * 
+ * @author Trystan Cannon
+ */
+public final class PeriodicEffectScheduler implements Runnable {
+    
+    /**
+     * The default time, in milliseconds, periodic effects may take in one tick
+     * before the rest are carried over to the next.
+     */
+    public static final double DEFAULT_TICK_BUDGET_MILLIS = 2;
+    
+    /**
+     * An effect's place in the phase of its group.
+     */
+    static final class Member {
+        
+        private final SpellEffect effect;
+        
+        private final PeriodGroup group;
+        
+        private final int phase;
+        
+        private boolean isCancelled = false;
+        
+        /**
+         * Whether or not the member is waiting in the carried over list.
+         */
+        private boolean isCarried = false;
+        
+        /**
+         * The tick on which the member last ran, so it is not run twice in one.
+         */
+        private long lastRunTick = -1;
+        
+        /**
+         * The first tick on which the member may run.
+         */
+        private final long firstDueTick;
+        
+        /**
+         * The tick from which the member no longer runs, because the effect's
+         * life span has passed.
+         */
+        private long endTick;
+        
+        private Member(SpellEffect effect, PeriodGroup group, int phase, long firstDueTick, long endTick) {
+            this.effect = effect;
+            this.group = group;
+            this.phase = phase;
+            this.firstDueTick = firstDueTick;
+            this.endTick = endTick;
+        }
+        
+    }
+    
+    /**
+     * The effects which share a period, spread across its phases.
+     */
+    public static final class PeriodGroup {
+        
+        private final int period;
+        
+        /**
+         * The members of each phase. Cancelled members are dropped the next
+         * time their phase runs, or when the scheduler goes idle.
+         */
+        private final ArrayList<ArrayList<Member>> phases;
+        
+        /**
+         * The number of members in each phase which have not been cancelled.
+         */
+        private final int[] phaseSizes;
+        
+        private int size = 0;
+        
+        private long lastRunNanos = 0;
+        
+        private long totalRunNanos = 0;
+        
+        private long runCount = 0;
+        
+        private PeriodGroup(int period) {
+            this.period = period;
+            this.phases = new ArrayList<>(period);
+            this.phaseSizes = new int[period];
+            
+            for (int phase = 0; phase < period; phase++) {
+                phases.add(new ArrayList<Member>());
+            }
+        }
+        
+        /**
+         * @return
+         *          The phase with the fewest members.
+         */
+        private int getLightestPhase() {
+            int lightest = 0;
+            
+            for (int phase = 1; phase < period; phase++) {
+                if (phaseSizes[phase] < phaseSizes[lightest]) {
+                    lightest = phase;
+                }
+            }
+            
+            return lightest;
+        }
+        
+        /**
+         * @return
+         *          The number of server ticks between each run of the effects in
+         *          this group.
+         */
+        public int getPeriod() {
+            return period;
+        }
+        
+        /**
+         * @return
+         *          The number of effects in this group.
+         */
+        public int getSize() {
+            return size;
+        }
+        
+        /**
+         * @return
+         *          The time, in nanoseconds, spent running this group during the
+         *          last tick it had effects due.
+         */
+        public long getLastRunNanos() {
+            return lastRunNanos;
+        }
+        
+        /**
+         * @return
+         *          The time, in nanoseconds, spent running this group in total.
+         */
+        public long getTotalRunNanos() {
+            return totalRunNanos;
+        }
+        
+        /**
+         * @return
+         *          The number of effect runs made by this group in total.
+         */
+        public long getRunCount() {
+            return runCount;
+        }
+        
+    }
+    
+    private final Plugin plugin;
+    
+    /**
+     * The groups, by period, kept in order of period so the shortest run first.
+     */
+    private final TreeMap<Integer, PeriodGroup> groups = new TreeMap<>();
+    
+    /**
+     * The members which were due when the last tick's budget ran out.
+     */
+    private ArrayList<Member> carriedOver = new ArrayList<>();
+    
+    /**
+     * The members which are due but will not fit in this tick's budget.
+     */
+    private ArrayList<Member> carrying = new ArrayList<>();
+    
+    private long tick = 0;
+    
+    private int size = 0;
+    
+    private long tickBudgetNanos = (long) (DEFAULT_TICK_BUDGET_MILLIS * 1000000);
+    
+    private long lastTickNanos = 0;
+    
+    private long deferredCount = 0;
+    
+    /**
+     * The id of the repeating task running the effects, or -1 if it is not
+     * running.
+     */
+    private int taskId = -1;
+    
+    public PeriodicEffectScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Runs the given effect every <code>period</code> ticks until it is
+     * cancelled or its life span passes. The first run comes at least
+     * <code>delay</code> ticks after this call, and less than a period after
+     * that.
+     * 
+     * @param effect
+     * @param delay
+     *          The least number of server ticks before the first run. At least
+     *          one.
+     * @param period 
+     *          The number of server ticks between each run. At least one.
+     */
+    public void schedule(SpellEffect effect, int delay, int period) {
+        cancel(effect);
+        delay = Math.max(1, delay);
+        period = Math.max(1, period);
+        
+        PeriodGroup group = groups.get(period);
+        
+        if (group == null) {
+            group = new PeriodGroup(period);
+            groups.put(period, group);
+        }
+        
+        long endTick = effect.getLifeSpan() > 0 ? tick + effect.getLifeSpan() : Long.MAX_VALUE;
+        Member member = new Member(effect, group, group.getLightestPhase(), tick + delay, endTick);
+        
+        group.phases.get(member.phase).add(member);
+        group.phaseSizes[member.phase]++;
+        group.size++;
+        size++;
+        effect.periodicMember = member;
+        
+        if (taskId == -1) {
+            taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+        }
+    }
+    
+    /**
+     * Stops running the given effect once the given number of ticks have
+     * passed, for an effect whose life span has been changed since it was
+     * scheduled.
+     * 
+     * @param effect
+     * @param remaining 
+     *          The number of ticks the effect has left.
+     */
+    void setRemaining(SpellEffect effect, int remaining) {
+        Member member = effect.periodicMember;
+        
+        if (member != null) {
+            member.endTick = tick + remaining;
+        }
+    }
+    
+    /**
+     * Stops running the given effect, if it is scheduled.
+     * 
+     * @param effect 
+     */
+    public void cancel(SpellEffect effect) {
+        Member member = effect.periodicMember;
+        
+        if (member != null) {
+            member.isCancelled = true;
+            member.group.phaseSizes[member.phase]--;
+            member.group.size--;
+            size--;
+            effect.periodicMember = null;
+        }
+    }
+    
+    /**
+     * Runs every effect due on this tick, carrying over those which do not
+     * fit in the budget.
+     */
+    @Override
+    public void run() {
+        long tickStart = System.nanoTime();
+        long deadline = tickBudgetNanos > 0 ? tickStart + tickBudgetNanos : Long.MAX_VALUE;
+        
+        tick++;
+        
+        // Swap the lists so members carried over from this tick are kept
+        // apart from those still to be run from the last.
+        ArrayList<Member> due = carriedOver;
+        carriedOver = carrying;
+        carrying = due;
+        
+        for (int i = 0; i < due.size(); i++) {
+            Member member = due.get(i);
+            long start = System.nanoTime();
+            
+            member.isCarried = false;
+            runOrCarry(member, deadline);
+            member.group.totalRunNanos += System.nanoTime() - start;
+        }
+        
+        due.clear();
+        
+        for (PeriodGroup group : groups.values()) {
+            ArrayList<Member> phase = group.phases.get((int) (tick % group.period));
+            
+            if (!phase.isEmpty()) {
+                runPhase(group, phase, deadline);
+            }
+        }
+        
+        lastTickNanos = System.nanoTime() - tickStart;
+        
+        if (size == 0 && carriedOver.isEmpty() && taskId != -1) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = -1;
+            
+            // Cancelled members are otherwise only dropped when their phase
+            // runs, which it will not until the task is restarted.
+            for (PeriodGroup group : groups.values()) {
+                for (ArrayList<Member> phase : group.phases) {
+                    phase.clear();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Runs the given member if the budget allows, or carries it over to the
+     * next tick. Members which are cancelled, already carried over, have
+     * already run this tick, are not yet due or have outlived their effect's
+     * life span are skipped.
+     * 
+     * @param member
+     * @param deadline 
+     *          The <code>System.nanoTime</code> after which members are carried
+     *          over rather than run.
+     */
+    private void runOrCarry(Member member, long deadline) {
+        if (member.isCancelled || member.isCarried || member.lastRunTick == tick
+                || tick < member.firstDueTick || tick >= member.endTick) {
+            return;
+        }
+        
+        if (System.nanoTime() < deadline) {
+            member.lastRunTick = tick;
+            member.effect.run();
+            member.group.runCount++;
+        } else {
+            member.isCarried = true;
+            carriedOver.add(member);
+            deferredCount++;
+        }
+    }
+    
+    /**
+     * Runs the members of one phase, dropping those which were cancelled.
+     * 
+     * @param group
+     * @param phase
+     * @param deadline 
+     *          The <code>System.nanoTime</code> after which members are carried
+     *          over rather than run.
+     */
+    private void runPhase(PeriodGroup group, ArrayList<Member> phase, long deadline) {
+        long groupStart = System.nanoTime();
+        // Effects started while the phase runs may join it, but are not run
+        // until its next turn.
+        int dueCount = phase.size();
+        
+        for (int i = 0; i < dueCount; i++) {
+            runOrCarry(phase.get(i), deadline);
+        }
+        
+        // Drop the members cancelled before or during the run.
+        int kept = 0;
+        
+        for (int i = 0; i < phase.size(); i++) {
+            Member member = phase.get(i);
+            
+            if (!member.isCancelled) {
+                phase.set(kept++, member);
+            }
+        }
+        
+        phase.subList(kept, phase.size()).clear();
+        
+        group.lastRunNanos = System.nanoTime() - groupStart;
+        group.totalRunNanos += group.lastRunNanos;
+    }
+    
+    /**
+     * @return
+     *          Every group of effects, in order of period.
+     */
+    public Collection<PeriodGroup> getGroups() {
+        return Collections.unmodifiableCollection(groups.values());
+    }
+    
+    /**
+     * @return
+     *          The number of effects scheduled.
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * @return
+     *          The time, in nanoseconds, spent running effects during the last
+     *          tick.
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    /**
+     * @return
+     *          The number of effect runs carried over to a later tick because
+     *          the budget of their own was spent.
+     */
+    public long getDeferredCount() {
+        return deferredCount;
+    }
+    
+    /**
+     * @return
+     *          The time, in milliseconds, periodic effects may take in one tick.
+     *          0 or less if there is no limit.
+     */
+    public double getTickBudgetMillis() {
+        return tickBudgetNanos / 1000000D;
+    }
+    
+    public void setTickBudgetMillis(double tickBudgetMillis) {
+        this.tickBudgetNanos = (long) (tickBudgetMillis * 1000000);
+    }
+    
+}
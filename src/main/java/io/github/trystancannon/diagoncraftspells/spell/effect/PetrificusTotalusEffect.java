@@ -23,14 +23,11 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.PetrificusTotalus;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -38,7 +35,7 @@ import org.bukkit.plugin.Plugin;
  * 
  * @author Trystan Cannon
  */
-public class PetrificusTotalusEffect extends SpellEffect implements Listener {
+public class PetrificusTotalusEffect extends SpellEffect {
     
     /**
      * The number of server ticks for which this effect is active.
@@ -47,21 +44,30 @@ public class PetrificusTotalusEffect extends SpellEffect implements Listener {
 
     public PetrificusTotalusEffect(Plugin plugin, Player entityAffected, Wizard caster) {
         super(PetrificusTotalus.NAME, plugin, entityAffected, caster);
-        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
     }
 
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent move) {
-        // Stop the player from moving but allow their direction to change.
-        if (!isRemoved() && move.getPlayer().getUniqueId().equals(getPlayerAffected().getUniqueId())) {
-            move.getPlayer().teleport(move.getFrom().setDirection(move.getTo().getDirection()));
-        }
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
     }
     
+    /**
+     * Stops the player from moving but allows their direction to change.
+     */
     @Override
     public void start() {
         super.start();
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 300);
+        
+        DiagonCraftSpellsPlugin.getMovementConstraints().freeze(getPlayerAffected(), this);
+    }
+    
+    @Override
+    protected void onRemove() {
+        DiagonCraftSpellsPlugin.getMovementConstraints().release(getPlayerAffected().getUniqueId(), this);
     }
     
     @Override
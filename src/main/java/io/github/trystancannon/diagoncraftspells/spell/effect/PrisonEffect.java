@@ -23,9 +23,9 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -72,6 +72,12 @@ public abstract class PrisonEffect extends SpellEffect {
      */
     private Location initialLocation;
     
+    /**
+     * Whether or not the prison's blocks are held in the plugin's
+     * <code>ProtectedBlockIndex</code>.
+     */
+    private boolean isProtecting = false;
+    
     public PrisonEffect(String name, Plugin plugin, LivingEntity entityAffected, Wizard caster, Material material, int lifeSpan) {
         super(name, plugin, entityAffected, caster);
         
@@ -81,8 +87,8 @@ public abstract class PrisonEffect extends SpellEffect {
     }
 
     /**
-     * Starts the effect by creating the prison around the entity affected and
-     * beginning the removal scheduled task @see <code>run</code>.
+     * Starts the effect by creating the prison around the entity affected. The
+     * prison is removed once <code>getLifeSpan</code> has passed @see <code>run</code>.
      */
     @Override
     public void start() {
@@ -106,6 +112,7 @@ public abstract class PrisonEffect extends SpellEffect {
                     if (!isEntityInBlock(entityAffected, block) && (block.getType() == Material.AIR || block.isLiquid())) {
                         prison[x + 1][y + 1][z + 1] = block;
                         block.setType(prisonMaterial);
+                        DiagonCraftSpellsPlugin.getProtectedBlocks().protect(block);
                     }
                 }
             }
@@ -118,10 +125,8 @@ public abstract class PrisonEffect extends SpellEffect {
                 (int) Math.round(initialLocation.getBlockY() + entityAffected.getEyeHeight()),
                 initialLocation.getBlockZ());
         prisonCap.setType(prisonMaterial);
-        
-        // Schedule the taks which will remove the prison when the effect's life
-        // span ends.
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, lifeSpan);
+        DiagonCraftSpellsPlugin.getProtectedBlocks().protect(prisonCap);
+        isProtecting = true;
     }
     
     private static boolean isEntityInBlock(LivingEntity entity, Block block) {
@@ -131,40 +136,47 @@ public abstract class PrisonEffect extends SpellEffect {
                block.getY() >= location.getBlockY() && block.getY() < location.getBlockY() + entity.getEyeHeight();
     }
     
+    /**
+     * Removes the spell effect from the effected entity once its life span
+     * has been reached.
+     */
+    @Override
+    public void run() {
+        if (!isRemoved()) {
+            remove();
+        }
+    }
+    
     /**
      * Removes the prison blocks which have gone undisturbed from around the
      * entity affected.
-     * 
-     * Also removes the spell effect from the effected entity.
      */
     @Override
-    public void run() {
+    protected void onRemove() {
+        ProtectedBlockIndex protectedBlocks = DiagonCraftSpellsPlugin.getProtectedBlocks();
+        BlockRestorer restorer = DiagonCraftSpellsPlugin.getBlockRestorer();
+        
         // Remove the stone prison.
         for (Block[][] layer : prison) {
             for (Block[] section : layer) {
                 for (Block block : section) {
-                    if (block != null && block.getType() == prisonMaterial) {
-                        block.setType(Material.AIR);
+                    if (block != null && isProtecting) {
+                        protectedBlocks.unprotect(block);
+                    }
+                    
+                    if (block != null) {
+                        restorer.restore(block, prisonMaterial, Material.AIR);
                     }
                 }
             }
         }
         
-        if (prisonCap.getType() == prisonMaterial) {
-            prisonCap.setType(Material.AIR);
+        if (isProtecting) {
+            protectedBlocks.unprotect(prisonCap);
+            isProtecting = false;
         }
         
-        // Remove the effect from the entity if it has not yet been forcibly
-        // removed.
-        if (!isRemoved()) {
-            remove();
-        }
-    }
-
-    @Override
-    public void remove() {
-        super.remove();
-        run();
+        restorer.restore(prisonCap, prisonMaterial, Material.AIR);
     }
     
     /**
@@ -197,6 +209,7 @@ public abstract class PrisonEffect extends SpellEffect {
      * @return
      *          The number of server ticks for which the spell is in effect once it starts.
      */
+    @Override
     public int getLifeSpan() {
         return lifeSpan;
     }
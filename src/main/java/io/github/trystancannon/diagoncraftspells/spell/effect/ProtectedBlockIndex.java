@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+import java.util.HashMap;
+import java.util.UUID;
+import org.bukkit.block.Block;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+
+/**
+ * The blocks placed by spell effects, such as conjured leaves, ice, prisons
+ * and transformed doors, which the world must leave alone until the effect
+ * ends.
+ * 
+ * Blocks are kept by world id, then by their coordinates packed into a single
+ * <code>long</code>. One listener cancels decay, melting, physics and breaking
+ * for any protected block with a single lookup, however many blocks effects
+ * have placed. Each block is counted, so that two effects protecting the same
+ * block do not free it when only one of them ends.
+ * 
+ * @author Trystan Cannon
+ */
+public final class ProtectedBlockIndex implements Listener {
+    
+    /**
+     * How many times each protected block is protected, by world id, then by
+     * packed coordinates.
+     */
+    private final HashMap<UUID, HashMap<Long, Integer>> worlds = new HashMap<>();
+    
+    /**
+     * The number of distinct blocks protected.
+     */
+    private int protectedCount = 0;
+    
+    /**
+     * The number of events cancelled to protect blocks.
+     */
+    private long cancelledCount = 0;
+    
+    /**
+     * Packs block coordinates into one <code>long</code>: 26 bits each for x
+     * and z, and 12 bits for y.
+     * 
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     *          The packed coordinates.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+    
+    /**
+     * Protects the given block until it is unprotected as many times as it
+     * has been protected.
+     * 
+     * @param block 
+     */
+    public void protect(Block block) {
+        UUID worldId = block.getWorld().getUID();
+        HashMap<Long, Integer> blocks = worlds.get(worldId);
+        
+        if (blocks == null) {
+            blocks = new HashMap<>();
+            worlds.put(worldId, blocks);
+        }
+        
+        Long key = pack(block.getX(), block.getY(), block.getZ());
+        Integer count = blocks.get(key);
+        
+        if (count == null) {
+            blocks.put(key, 1);
+            protectedCount++;
+        } else {
+            blocks.put(key, count + 1);
+        }
+    }
+    
+    /**
+     * Lifts one protection from the given block.
+     * 
+     * @param block 
+     */
+    public void unprotect(Block block) {
+        UUID worldId = block.getWorld().getUID();
+        HashMap<Long, Integer> blocks = worlds.get(worldId);
+        
+        if (blocks == null) {
+            return;
+        }
+        
+        Long key = pack(block.getX(), block.getY(), block.getZ());
+        Integer count = blocks.get(key);
+        
+        if (count == null) {
+            return;
+        }
+        
+        if (count > 1) {
+            blocks.put(key, count - 1);
+            return;
+        }
+        
+        blocks.remove(key);
+        protectedCount--;
+        
+        if (blocks.isEmpty()) {
+            worlds.remove(worldId);
+        }
+    }
+    
+    /**
+     * @param block
+     * @return
+     *          Whether or not the given block is protected.
+     */
+    public boolean isProtected(Block block) {
+        if (worlds.isEmpty()) {
+            return false;
+        }
+        
+        HashMap<Long, Integer> blocks = worlds.get(block.getWorld().getUID());
+        return blocks != null && blocks.containsKey(pack(block.getX(), block.getY(), block.getZ()));
+    }
+    
+    /**
+     * @return
+     *          The number of distinct blocks protected.
+     */
+    public int getProtectedCount() {
+        return protectedCount;
+    }
+    
+    /**
+     * @return
+     *          The number of events cancelled to protect blocks.
+     */
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+    
+    /**
+     * Cancels the given block event if its block is protected.
+     */
+    private <E extends BlockEvent & Cancellable> void cancelIfProtected(E event) {
+        if (isProtected(event.getBlock())) {
+            event.setCancelled(true);
+            cancelledCount++;
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onLeavesDecay(LeavesDecayEvent decay) {
+        cancelIfProtected(decay);
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent fade) {
+        cancelIfProtected(fade);
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockPhysics(BlockPhysicsEvent physics) {
+        cancelIfProtected(physics);
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent breakEvent) {
+        cancelIfProtected(breakEvent);
+    }
+    
+}
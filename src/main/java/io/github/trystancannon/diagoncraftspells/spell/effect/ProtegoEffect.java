@@ -29,9 +29,6 @@ import io.github.trystancannon.diagoncraftspells.spell.Protego;
 
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -40,11 +37,22 @@ import org.bukkit.plugin.Plugin;
  * 
  * @author Trystan Cannon
  */
-public final class ProtegoEffect extends SpellEffect implements Listener {
+public final class ProtegoEffect extends SpellEffect {
 
     public ProtegoEffect(Plugin plugin, Wizard caster) {
         super(Protego.NAME, plugin, caster.getPlayer(), caster);
-        getPlugin().getServer().getPluginManager().registerEvents(this, getPlugin());
+    }
+    
+    @Override
+    public void start() {
+        super.start();
+        
+        addHandler(getEntity().getUniqueId(), SpellProjectileCollideEntityEvent.class, new EffectHandler<SpellProjectileCollideEntityEvent>() {
+            @Override
+            public void handle(SpellProjectileCollideEntityEvent collision) {
+                onSpellProjectileCollideEntity(collision);
+            }
+        });
     }
 
     /**
@@ -62,14 +70,11 @@ public final class ProtegoEffect extends SpellEffect implements Listener {
      * @param collision
      *          The collision event called by the spell projectile which struck the protected wizard.
      */
-    @EventHandler(priority = EventPriority.MONITOR)
     public void onSpellProjectileCollideEntity(SpellProjectileCollideEntityEvent collision) {
-        if (collision.getCaster().hasEffect(getName()) && collision.getEntity().getUniqueId().equals(collision.getCaster().getPlayer().getUniqueId())) {
-            collision.setCancelled(true);
-            
-            if (collision.getEntity() instanceof Player) {
-                collision.getEntity().sendMessage("You were protected from " + ChatColor.LIGHT_PURPLE + collision.getSpell().getName() + "!");
-            }
+        collision.setCancelled(true);
+        
+        if (collision.getEntity() instanceof Player) {
+            collision.getEntity().sendMessage("You were protected from " + ChatColor.LIGHT_PURPLE + collision.getSpell().getName() + "!");
         }
     }
     
@@ -26,7 +26,6 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Sectumsempra;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
 
@@ -49,56 +48,68 @@ public class SectumsempraEffect extends SpellEffect {
     public static double DAMAGE_INTERVAL = 4.5 / 10;
     
     /**
-     * The number of ticks for which this effect has been active.
+     * The number of server ticks between each infliction of damage.
      */
-    private int ticksLived = 0;
+    public static final int UPDATE_INTERVAL = 20;
     
     /**
-     * The id of the task which will inflict damage on the player.
-     * 
-     * This is used for stopping any scheduled damaging if the effect
-     * is canceled before the task executes but after it is scheduled.
+     * The most wounds which may bleed on one entity at once.
      */
-    private int damageTaskId = -1;
+    public static final int MAX_STACKS = 3;
     
     public SectumsempraEffect(Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         super(Sectumsempra.NAME, plugin, entityAffected, caster);
     }
     
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
     @Override
-    public void start() {
-        super.start();
-        
-        getEntity().damage(DAMAGE_INTERVAL);
-        damageTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 20);
+    public int getLifeSpan() {
+        return LIFE_SPAN;
     }
     
+    /**
+     * @return
+     *          <code>UPDATE_INTERVAL</code>.
+     */
     @Override
-    public void run() {
-        if (isRemoved()) {
-            return;
-        }
-        
-        ticksLived += 20;
+    public int getPeriod() {
+        return UPDATE_INTERVAL;
+    }
+    
+    /**
+     * @return
+     *          <code>STACK</code>: each cast opens another wound.
+     */
+    @Override
+    public StackingPolicy getStackingPolicy() {
+        return StackingPolicy.STACK;
+    }
+    
+    /**
+     * @return
+     *          <code>MAX_STACKS</code>.
+     */
+    @Override
+    public int getMaxStacks() {
+        return MAX_STACKS;
+    }
+    
+    @Override
+    public void start() {
+        super.start();
         
-        if (ticksLived > LIFE_SPAN) {
-            remove();
-            damageTaskId = -1;
-            
-            return;
+        if (isActive()) {
+            run();
         }
-        
-        getEntity().damage(DAMAGE_INTERVAL);
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, 20);
     }
     
     @Override
-    public void remove() {
-        super.remove();
-        
-        if (damageTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(damageTaskId);
-            damageTaskId = -1;
+    public void run() {
+        if (!isRemoved()) {
+            getEntity().damage(DAMAGE_INTERVAL);
         }
     }
     
@@ -23,14 +23,11 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Silencio;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -38,52 +35,47 @@ import org.bukkit.plugin.Plugin;
  * 
  * @author Trystan Cannon (tccannon@live.com)
  */
-public class SilencioEffect extends SpellEffect implements Listener {
+public class SilencioEffect extends SpellEffect {
     
     /**
      * The number of server ticks for which this effect is active (~30 seconds).
      */
     public static final int LIFE_SPAN = 600;
 
-    /**
-     * The task id assigned by the schedule for this event's removal task.
-     */
-    private int removalTaskId = -1;
-    
     public SilencioEffect(Plugin plugin, Player playerAffected, Wizard caster) {
         super(Silencio.NAME, plugin, playerAffected, caster);
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
-    @EventHandler
-    public void onPlayerChat(AsyncPlayerChatEvent chat) {
-        if (hasStarted() && !isRemoved() && chat.getPlayer().getUniqueId().equals(((Player) getEntity()).getUniqueId())) {
-            chat.setCancelled(true);
-        }
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
     }
     
+    /**
+     * Mutes the player in the plugin's <code>MuteRegistry</code>, which the
+     * chat threads read.
+     */
     @Override
     public void start() {
         super.start();
-        removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
+        
+        DiagonCraftSpellsPlugin.getMuteRegistry().mute(getEntity().getUniqueId());
     }
     
     @Override
     public void run() {
         if (!isRemoved()) {
-            removalTaskId = -1;
             remove();
         }
     }
     
     @Override
-    public void remove() {
-        super.remove();
-        
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-            removalTaskId = -1;
-        }
+    protected void onRemove() {
+        DiagonCraftSpellsPlugin.getMuteRegistry().unmute(getEntity().getUniqueId());
     }
     
 }
@@ -23,8 +23,10 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.event.SpellEffectAddEvent;
 import io.github.trystancannon.diagoncraftspells.event.SpellEffectEndEvent;
+import io.github.trystancannon.diagoncraftspells.event.SpellEventBus;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 
 import org.bukkit.entity.Entity;
@@ -50,32 +52,47 @@ public abstract class SpawnEffect extends SpellEffect {
         super(name, plugin, null, caster);
     }
     
+    /**
+     * Starts the effect, adding it to the caster's effect list.
+     */
     @Override
     public void start() {
-        getCaster().addEffect(this);
-        produceAddEvent();
+        if (!hasStarted()) {
+            getCaster().addEffect(this);
+        }
+        
+        super.start();
     }
     
     @Override
-    public void remove() {
+    protected void onRemove() {
         getCaster().removeEffectFromList(this);
-        produceEndEvent();
     }
     
     /**
-     * Calls this spell effect as a <code>SpellEffectAddEvent</code>.
+     * Posts this spell effect as a <code>SpellEffectAddEvent</code>, if anything
+     * listens for one.
      */
     @Override
     public void produceAddEvent() {
-        getPlugin().getServer().getPluginManager().callEvent(new SpellEffectAddEvent(this, getCaster().getPlayer(), getCaster()));
+        SpellEventBus bus = DiagonCraftSpellsPlugin.getEventBus();
+        
+        if (bus.isObserved(SpellEffectAddEvent.class)) {
+            bus.post(new SpellEffectAddEvent(this, getCaster().getPlayer(), getCaster(), getChangedBlocks()));
+        }
     }
     
     /**
-     * Calls this spell effect as a <code>SpellEffectEndEvent</code>.
+     * Posts this spell effect as a <code>SpellEffectEndEvent</code>, if anything
+     * listens for one.
      */
     @Override
     public void produceEndEvent() {
-        getPlugin().getServer().getPluginManager().callEvent(new SpellEffectEndEvent(this, getCaster().getPlayer(), getCaster()));
+        SpellEventBus bus = DiagonCraftSpellsPlugin.getEventBus();
+        
+        if (bus.isObserved(SpellEffectEndEvent.class)) {
+            bus.post(new SpellEffectEndEvent(this, getCaster().getPlayer(), getCaster(), getChangedBlocks()));
+        }
     }
     
     /**
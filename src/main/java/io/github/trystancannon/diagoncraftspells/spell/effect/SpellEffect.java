@@ -26,11 +26,20 @@ package io.github.trystancannon.diagoncraftspells.spell.effect;
 import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.event.SpellEffectAddEvent;
 import io.github.trystancannon.diagoncraftspells.event.SpellEffectEndEvent;
+import io.github.trystancannon.diagoncraftspells.event.SpellEventBus;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -42,13 +51,27 @@ import org.bukkit.plugin.Plugin;
  * Each effect has its own unique name, allowing it to be identified.
  * 
  * All effects must be explicitly started before an event or scheduled task
- * is created.
+ * is created. An effect which lasts for a fixed time declares it through
+ * <code>getLifeSpan</code>, and is removed by the plugin's
+ * <code>EffectTimingWheel</code> once it has passed. An effect which repeats
+ * declares its period through <code>getPeriod</code>, and is run by the
+ * plugin's <code>PeriodicEffectScheduler</code> until it is removed. Effects
+ * handle events through the plugin's <code>EffectListenerRegistry</code>
+ * rather than registering with Bukkit, so their handlers are dropped when they
+ * are removed.
+ * 
+ * Every effect moves once through the states of <code>EffectState</code>.
+ * Starting or removing an effect a second time does nothing. Removing an
+ * effect releases its expiry, periodic runs, tasks scheduled through
+ * <code>runLater</code> and event handlers before calling
+ * <code>onRemove</code>, which subclasses override to undo what they did,
+ * exactly once. The plugin's <code>EffectLifecycleMonitor</code> counts the
+ * mistakes made along the way.
  * 
  * NOTE:
- * Effects remove themselves from the affected wizard's effect list. This can cause
- * <code>ConcurrentModificationException</code>s when users try to iterate through
- * the effect list and remove effects during an iteration. This is a design flaw
- * and should be fixed later...
+ * Effects remove themselves from the affected wizard's effect list, so the
+ * read-only views of that list MUST NOT be iterated while removing effects.
+ * Use <code>Wizard.removeEffects</code> instead.
  * 
  * @author Trystan Cannon
  */
@@ -59,6 +82,11 @@ public abstract class SpellEffect implements Runnable {
      */
     private final String name;
     
+    /**
+     * The interned type of this effect, shared by every effect with its name.
+     */
+    private final EffectType type;
+    
     /**
      * The entity affected by this spell. Can be <code>null</code>.
      */
@@ -75,17 +103,37 @@ public abstract class SpellEffect implements Runnable {
     private final Plugin plugin;
     
     /**
-     * Whether or not the effect has been removed.
+     * The stage of this effect's life.
+     */
+    private EffectState state = EffectState.CREATED;
+    
+    /**
+     * The tasks scheduled through <code>runLater</code> which have yet to run.
+     * <code>null</code> until the first is scheduled.
+     */
+    private List<OwnedTask> ownedTasks;
+    
+    /**
+     * The handlers this effect has registered with the plugin's
+     * <code>EffectListenerRegistry</code>. <code>null</code> if there are none.
+     */
+    List<EffectListenerRegistry.Registration> listenerRegistrations;
+    
+    /**
+     * The pending expiry of this effect in the plugin's
+     * <code>EffectTimingWheel</code>. <code>null</code> if there is none.
      */
-    private boolean isRemoved = false;
+    EffectTimingWheel.Timer expiryTimer;
     
     /**
-     * Whether or not the effect has been started.
+     * This effect's place in the plugin's <code>PeriodicEffectScheduler</code>.
+     * <code>null</code> if it is not scheduled.
      */
-    private boolean hasStarted = false;
+    PeriodicEffectScheduler.Member periodicMember;
     
     public SpellEffect(String name, Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         this.name = name;
+        this.type = EffectType.of(name);
         this.plugin = plugin;
         this.entityAffected = entityAffected;
         this.caster = caster;
@@ -99,6 +147,24 @@ public abstract class SpellEffect implements Runnable {
         return name;
     }
     
+    /**
+     * @return
+     *          The interned type of this effect, shared by every effect with its
+     *          name.
+     */
+    public EffectType getType() {
+        return type;
+    }
+    
+    /**
+     * @return
+     *          The world in which this effect acts, or <code>null</code> if it
+     *          affects no entity.
+     */
+    public World getWorld() {
+        return entityAffected != null ? entityAffected.getWorld() : null;
+    }
+    
     /**
      * @return
      *          The plugin instance used for scheduling tasks, registering for events, etc.
@@ -126,10 +192,18 @@ public abstract class SpellEffect implements Runnable {
     
     /**
      * @return
-     *          Whether or not this effect has been removed.
+     *          The stage of this effect's life.
+     */
+    public EffectState getState() {
+        return state;
+    }
+    
+    /**
+     * @return
+     *          Whether or not this effect is being or has been removed.
      */
     public boolean isRemoved() {
-        return isRemoved;
+        return state == EffectState.ENDING || state == EffectState.ENDED;
     }
     
     /**
@@ -137,7 +211,104 @@ public abstract class SpellEffect implements Runnable {
      *          Whether or not this effect has been started.
      */
     public boolean hasStarted() {
-        return hasStarted;
+        return state != EffectState.CREATED;
+    }
+    
+    /**
+     * @return
+     *          Whether or not this effect has been started and not removed.
+     *          <code>false</code> after <code>start</code> if the effect was
+     *          dropped by its stacking policy.
+     */
+    public boolean isActive() {
+        return state == EffectState.STARTED;
+    }
+    
+    /**
+     * @return
+     *          Whether or not the affected player is told when this effect
+     *          starts and ends.
+     */
+    protected boolean isAnnounced() {
+        return true;
+    }
+    
+    /**
+     * @return
+     *          The number of server ticks after starting for which this effect
+     *          lasts before it is removed. 0 if the effect lasts until it is
+     *          removed some other way.
+     */
+    public int getLifeSpan() {
+        return 0;
+    }
+    
+    /**
+     * @return
+     *          The number of server ticks between each run of this effect while
+     *          it is active. 0 if the effect does not repeat.
+     */
+    public int getPeriod() {
+        return 0;
+    }
+    
+    /**
+     * @return
+     *          The least number of server ticks after starting before this
+     *          effect first runs. By default a full period, for effects which
+     *          run themselves once as they start.
+     */
+    public int getInitialDelay() {
+        return getPeriod();
+    }
+    
+    /**
+     * @return
+     *          Whether or not this effect only works while its caster is
+     *          online, and so ends when they leave.
+     */
+    public boolean isCasterNeeded() {
+        return false;
+    }
+    
+    /**
+     * @return
+     *          What happens when this effect starts on an entity which already
+     *          has an effect of its type. <code>STACK</code> by default, so
+     *          effects run alongside each other.
+     */
+    public StackingPolicy getStackingPolicy() {
+        return StackingPolicy.STACK;
+    }
+    
+    /**
+     * @return
+     *          The most effects of this type which may be on one entity for
+     *          <code>STACK</code>, or the most life spans an effect may have
+     *          left for <code>EXTEND</code>. Unbounded by default.
+     */
+    public int getMaxStacks() {
+        return Integer.MAX_VALUE;
+    }
+    
+    /**
+     * Called on an effect already present on the entity when a new effect of
+     * its type is merged into it by <code>REFRESH</code> or <code>EXTEND</code>.
+     * Does nothing by default.
+     * 
+     * @param merged
+     *          The new effect, which is dropped without starting.
+     */
+    protected void onMerge(SpellEffect merged) {
+    }
+    
+    /**
+     * @return
+     *          The blocks this effect has changed, carried on its add and end
+     *          events. Empty if the effect changes no blocks.
+     */
+    public List<Block> getChangedBlocks() {
+        return Collections.emptyList();
     }
     
     /**
@@ -149,12 +320,35 @@ public abstract class SpellEffect implements Runnable {
     /**
      * Starts the effect, producing an add event and adding the effect to
      * the affected wizard's effect list, if the entity affected is a wizard.
+     * Schedules the effect's expiry and periodic runs, if it has them.
+     * 
+     * Does nothing if the effect has already been started. If the entity
+     * already has an effect of this type, the stacking policy may instead
+     * merge this effect into that one or drop it, ending this effect without
+     * it ever starting. Subclasses check <code>isActive</code> after calling
+     * this before doing anything more.
      * 
      * This method does NOT run the <code>run</code> method.
      */
     public void start() {
+        EffectLifecycleMonitor monitor = DiagonCraftSpellsPlugin.getEffectLifecycle();
+        
+        if (state != EffectState.CREATED) {
+            monitor.recordRedundantStart();
+            return;
+        }
+        
+        if (getEntity() != null && !admit()) {
+            state = EffectState.ENDED;
+            monitor.recordMerge();
+            return;
+        }
+        
         if (getEntity() instanceof Player) {
-            getEntity().sendMessage(ChatColor.ITALIC + "You have been affected by " + ChatColor.LIGHT_PURPLE + getName() + "!");
+            if (isAnnounced()) {
+                getEntity().sendMessage(ChatColor.ITALIC + "You have been affected by " + ChatColor.LIGHT_PURPLE + getName() + "!");
+            }
+            
             Wizard wizard = DiagonCraftSpellsPlugin.getWizard(((Player) getEntity()).getUniqueId());
             
             if (wizard != null) {
@@ -162,17 +356,117 @@ public abstract class SpellEffect implements Runnable {
             }
         }
         
-        hasStarted = true;
+        state = EffectState.STARTED;
+        monitor.recordStart();
+        DiagonCraftSpellsPlugin.getEffectTable().add(this);
+        
+        if (getLifeSpan() > 0) {
+            DiagonCraftSpellsPlugin.getEffectTimingWheel().schedule(this, getLifeSpan());
+        }
+        
+        if (getPeriod() > 0) {
+            DiagonCraftSpellsPlugin.getPeriodicEffects().schedule(this, getInitialDelay(), getPeriod());
+        }
+        
         produceAddEvent();
     }
     
+    /**
+     * Applies this effect's stacking policy against the effects of its type
+     * already on the entity.
+     * 
+     * @return
+     *          <code>true</code> if this effect should start, or <code>false</code>
+     *          if it was merged into an effect already present or dropped.
+     */
+    private boolean admit() {
+        StackingPolicy policy = getStackingPolicy();
+        
+        if (policy == StackingPolicy.STACK && getMaxStacks() == Integer.MAX_VALUE) {
+            return true;
+        }
+        
+        SpellEffect present = null;
+        int presentCount = 0;
+        
+        for (SpellEffect effect : DiagonCraftSpellsPlugin.getEffectTable().getEffects(getEntity())) {
+            if (effect.getType() == type) {
+                if (present == null) {
+                    present = effect;
+                }
+                
+                presentCount++;
+            }
+        }
+        
+        if (present == null) {
+            return true;
+        }
+        
+        EffectTimingWheel wheel = DiagonCraftSpellsPlugin.getEffectTimingWheel();
+        
+        switch (policy) {
+            case REFRESH:
+                if (present.getLifeSpan() > 0) {
+                    present.setRemaining(present.getLifeSpan());
+                }
+                
+                present.onMerge(this);
+                return false;
+            case EXTEND:
+                if (present.getLifeSpan() > 0) {
+                    long limit = (long) present.getLifeSpan() * getMaxStacks();
+                    present.setRemaining((int) Math.min(limit, (long) wheel.getRemaining(present) + getLifeSpan()));
+                }
+                
+                present.onMerge(this);
+                return false;
+            case STACK:
+                return presentCount < getMaxStacks();
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * Gives this effect the given number of ticks left to live, both on the
+     * timing wheel and for its periodic runs.
+     * 
+     * @param remaining 
+     */
+    private void setRemaining(int remaining) {
+        DiagonCraftSpellsPlugin.getEffectTimingWheel().schedule(this, remaining);
+        DiagonCraftSpellsPlugin.getPeriodicEffects().setRemaining(this, remaining);
+    }
+    
     /**
      * Removes the spell effect from the afflicted entity, removing the effect
-     * from an affected wizard's effect list, if any.
+     * from an affected wizard's effect list, if any. Releases everything the
+     * effect holds, then calls <code>onRemove</code> and produces an end event.
+     * 
+     * Does nothing if the effect has already been removed. An effect which was
+     * never started simply ends.
      */
-    public void remove() {
+    public final void remove() {
+        EffectLifecycleMonitor monitor = DiagonCraftSpellsPlugin.getEffectLifecycle();
+        
+        if (isRemoved()) {
+            monitor.recordDoubleRemoval();
+            return;
+        }
+        
+        if (state == EffectState.CREATED) {
+            state = EffectState.ENDED;
+            return;
+        }
+        
+        state = EffectState.ENDING;
+        
         if (getEntity() instanceof Player) {
-            getEntity().sendMessage(ChatColor.ITALIC + "You are now free from the effects of " + ChatColor.LIGHT_PURPLE + getName() + "!");
+            if (isAnnounced()) {
+                getEntity().sendMessage(ChatColor.ITALIC + "You are now free from the effects of " + ChatColor.LIGHT_PURPLE + getName() + "!");
+            }
+            
             Wizard wizard = DiagonCraftSpellsPlugin.getWizard(((Player) getEntity()).getUniqueId());
             
             if (wizard != null) {
@@ -180,31 +474,155 @@ public abstract class SpellEffect implements Runnable {
             }
         }
         
-        isRemoved = true;
+        DiagonCraftSpellsPlugin.getEffectTable().remove(this);
+        release(monitor);
+        onRemove();
+        
+        state = EffectState.ENDED;
+        monitor.recordEnd();
+        
+        // Anything scheduled by onRemove is refused, so this only finds
+        // holds taken some other way.
+        if (expiryTimer != null || periodicMember != null || (ownedTasks != null && !ownedTasks.isEmpty())
+                || (listenerRegistrations != null && !listenerRegistrations.isEmpty())) {
+            monitor.recordLeak();
+            release(monitor);
+        }
+        
         produceEndEvent();
     }
     
     /**
-     * Sets whether or not this effect has been removed from the affected entity.
+     * Undoes whatever the effect did to the world once it is being removed.
+     * Called exactly once, after the effect's expiry, periodic runs, tasks and
+     * event handlers have been released.
+     */
+    protected void onRemove() {
+    }
+    
+    /**
+     * Cancels the effect's expiry, periodic runs and pending tasks, and drops
+     * its event handlers.
+     * 
+     * @param monitor 
+     */
+    private void release(EffectLifecycleMonitor monitor) {
+        if (expiryTimer != null) {
+            DiagonCraftSpellsPlugin.getEffectTimingWheel().cancel(this);
+        }
+        
+        if (periodicMember != null) {
+            DiagonCraftSpellsPlugin.getPeriodicEffects().cancel(this);
+        }
+        
+        if (ownedTasks != null && !ownedTasks.isEmpty()) {
+            monitor.recordCancelledTasks(ownedTasks.size());
+            
+            for (OwnedTask task : ownedTasks) {
+                Bukkit.getScheduler().cancelTask(task.taskId);
+            }
+            
+            ownedTasks.clear();
+        }
+        
+        removeHandlers();
+    }
+    
+    /**
+     * Runs this effect once after the given delay. The task is cancelled if
+     * the effect is removed first, and is never scheduled if the effect has
+     * already been removed.
+     * 
+     * @param delay
+     *          The number of server ticks before the effect runs.
+     */
+    protected void runLater(long delay) {
+        if (isRemoved()) {
+            DiagonCraftSpellsPlugin.getEffectLifecycle().recordLateSchedule();
+            return;
+        }
+        
+        if (ownedTasks == null) {
+            ownedTasks = new ArrayList<>(1);
+        }
+        
+        OwnedTask task = new OwnedTask();
+        task.taskId = Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, task, delay);
+        
+        if (task.taskId != -1) {
+            ownedTasks.add(task);
+        }
+    }
+    
+    /**
+     * A task scheduled through <code>runLater</code>, which lets go of itself
+     * when it runs.
+     */
+    private final class OwnedTask implements Runnable {
+        
+        private int taskId = -1;
+        
+        @Override
+        public void run() {
+            ownedTasks.remove(this);
+            SpellEffect.this.run();
+        }
+        
+    }
+    
+    /**
+     * Called by the <code>EffectTimingWheel</code> when this effect's life span
+     * has passed. Removes the effect if it has not already been removed.
+     */
+    void expire() {
+        if (!isRemoved()) {
+            remove();
+        }
+    }
+    
+    /**
+     * Registers a handler for events of the given type concerning the given
+     * entity. The handler is dropped when the effect is removed.
      * 
-     * @param isRemoved
-     *      Whether or not this effect has been removed from the affected entity.
+     * @param key
+     *          The unique id of the entity whose events are handled.
+     * @param eventType
+     *          The type of event handled.
+     * @param handler
+     *          The handler to call.
      */
-    protected void setRemoved(boolean isRemoved) {
-        this.isRemoved = isRemoved;
+    protected <E extends Event> void addHandler(UUID key, Class<E> eventType, EffectHandler<E> handler) {
+        DiagonCraftSpellsPlugin.getEffectListenerRegistry().register(this, key, eventType, handler);
     }
     
     /**
-     * Calls this spell effect as a <code>SpellEffectAddEvent</code>.
+     * Drops every handler this effect has registered.
+     */
+    protected void removeHandlers() {
+        DiagonCraftSpellsPlugin.getEffectListenerRegistry().unregisterAll(this);
+    }
+    
+    /**
+     * Posts this spell effect as a <code>SpellEffectAddEvent</code>, if anything
+     * listens for one.
      */
     public void produceAddEvent() {
-        getPlugin().getServer().getPluginManager().callEvent(new SpellEffectAddEvent(this, entityAffected, caster));
+        SpellEventBus bus = DiagonCraftSpellsPlugin.getEventBus();
+        
+        if (bus.isObserved(SpellEffectAddEvent.class)) {
+            bus.post(new SpellEffectAddEvent(this, entityAffected, caster, getChangedBlocks()));
+        }
     }
     
     /**
-     * Calls this spell effect as a <code>SpellEffectEndEvent</code>.
+     * Posts this spell effect as a <code>SpellEffectEndEvent</code>, if anything
+     * listens for one.
      */
     public void produceEndEvent() {
-        getPlugin().getServer().getPluginManager().callEvent(new SpellEffectEndEvent(this, entityAffected, caster));
+        SpellEventBus bus = DiagonCraftSpellsPlugin.getEventBus();
+        
+        if (bus.isObserved(SpellEffectEndEvent.class)) {
+            bus.post(new SpellEffectEndEvent(this, entityAffected, caster, getChangedBlocks()));
+        }
     }
 }
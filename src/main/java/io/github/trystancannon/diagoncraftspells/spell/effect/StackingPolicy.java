@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.spell.effect;
+
+/**
+ * What happens when an effect starts on an entity which already has an effect
+ * of the same type.
+ * 
+ * Whatever the policy, a cast never leaves more than
+ * <code>SpellEffect.getMaxStacks()</code> effects of one type on an entity
+ * (or one, for every policy but <code>STACK</code>).
+ * 
+ * @author Trystan Cannon
+ */
+public enum StackingPolicy {
+    
+    /**
+     * The effect already present starts its life span over, and the new
+     * effect is dropped.
+     */
+    REFRESH,
+    
+    /**
+     * The effect already present has the new effect's life span added to
+     * what remains of its own, up to <code>getMaxStacks()</code> life spans,
+     * and the new effect is dropped.
+     */
+    EXTEND,
+    
+    /**
+     * The new effect runs alongside those already present, as long as there
+     * are fewer than <code>getMaxStacks()</code> of them. Otherwise it is
+     * dropped.
+     */
+    STACK,
+    
+    /**
+     * The new effect is dropped while an effect of its type is present.
+     */
+    REJECT
+    
+}
@@ -38,15 +38,52 @@ import org.bukkit.potion.PotionEffectType;
  * @author Trystan Cannon
  */
 public class TrinusEffect extends SpellEffect {
+    
+    /**
+     * The number of server ticks for which this effect is active.
+     */
+    public static final int LIFE_SPAN = 1200;
 
     public TrinusEffect(Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         super(Trinus.NAME, plugin, entityAffected, caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
+    /**
+     * @return
+     *          <code>REFRESH</code>: casting Trinus again on a slowed target
+     *          starts its minute over.
+     */
+    @Override
+    public StackingPolicy getStackingPolicy() {
+        return StackingPolicy.REFRESH;
+    }
+    
     @Override
     public void start() {
         super.start();
-        getEntity().addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 1200, 5));
+        
+        if (isActive()) {
+            getEntity().addPotionEffect(new PotionEffect(PotionEffectType.SLOW, LIFE_SPAN, 5));
+        }
+    }
+    
+    /**
+     * Gives the slowness its full duration again.
+     * 
+     * @param merged 
+     */
+    @Override
+    protected void onMerge(SpellEffect merged) {
+        getEntity().addPotionEffect(new PotionEffect(PotionEffectType.SLOW, LIFE_SPAN, 5), true);
     }
     
     @Override
@@ -57,8 +94,7 @@ public class TrinusEffect extends SpellEffect {
     }
     
     @Override
-    public void remove() {
-        super.remove();
+    protected void onRemove() {
         getEntity().removePotionEffect(PotionEffectType.SLOW);
     }
     
@@ -27,7 +27,6 @@ import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.Ventus;
 
 import java.util.Random;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
@@ -61,11 +60,6 @@ public class VentusEffect extends SpellEffect {
      */
     public static final double VELOCITY_COMPONENT_MAX = 0.5D;
     
-    /**
-     * The number of ticks for which this effect has been active since being started.
-     */
-    private int ticksLived = 0;
-    
     /**
      * Used for the generation of random velocities on the x and z axes during
      * the effect.
@@ -76,24 +70,47 @@ public class VentusEffect extends SpellEffect {
         super(Ventus.NAME, plugin, entityAffected, caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
+    /**
+     * @return
+     *          <code>UPDATE_INTERVAL</code>.
+     */
+    @Override
+    public int getPeriod() {
+        return UPDATE_INTERVAL;
+    }
+    
+    /**
+     * @return
+     *          <code>REJECT</code>: a target already caught in the wind is not
+     *          caught again.
+     */
+    @Override
+    public StackingPolicy getStackingPolicy() {
+        return StackingPolicy.REJECT;
+    }
+    
     @Override
     public void start() {
         super.start();
-        run();
+        
+        if (isActive()) {
+            run();
+        }
     }
     
     @Override
     public void run() {
-        if (ticksLived < LIFE_SPAN && !isRemoved()) {
-            getEntity().setVelocity(getRandomVelocity());
-            Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, UPDATE_INTERVAL);
-            
-            ticksLived += UPDATE_INTERVAL;
-            return;
-        }
-        
         if (!isRemoved()) {
-            remove();
+            getEntity().setVelocity(getRandomVelocity());
         }
     }
     
@@ -23,12 +23,12 @@
  */
 package io.github.trystancannon.diagoncraftspells.spell.effect;
 
+import io.github.trystancannon.diagoncraftspells.core.DiagonCraftSpellsPlugin;
 import io.github.trystancannon.diagoncraftspells.player.Wizard;
 import io.github.trystancannon.diagoncraftspells.spell.VeraVeto;
 
-import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.plugin.Plugin;
 
@@ -41,50 +41,50 @@ public class VeraVetoEffect extends SpellEffect {
 
     public static final int LIFE_SPAN = 400;
     
-    private Location flowerPotLocation;
-    
-    private int removalTaskId = -1;
+    /**
+     * The flower pot the entity was turned into.
+     */
+    private Block flowerPot;
     
     public VeraVetoEffect(Plugin plugin, LivingEntity entityAffected, Wizard caster) {
         super(VeraVeto.NAME, plugin, entityAffected, caster);
     }
 
+    /**
+     * @return
+     *          <code>LIFE_SPAN</code>.
+     */
+    @Override
+    public int getLifeSpan() {
+        return LIFE_SPAN;
+    }
+    
     @Override
     public void start() {
         super.start();
-        removalTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
         
-        getEntity().getLocation().getBlock().setType(Material.FLOWER_POT);
-        flowerPotLocation = getEntity().getLocation();
+        flowerPot = getEntity().getLocation().getBlock();
+        flowerPot.setType(Material.FLOWER_POT);
+        DiagonCraftSpellsPlugin.getProtectedBlocks().protect(flowerPot);
         
         getEntity().remove();
-        Bukkit.getScheduler().scheduleSyncDelayedTask(getPlugin(), this, LIFE_SPAN);
     }
     
     @Override
     public void run() {
         if (!isRemoved()) {
-            removalTaskId = -1;
             remove();
         }
     }
     
     @Override
-    public void remove() {
-        super.remove();
-        
-        if (removalTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(removalTaskId);
-            removalTaskId = -1;
-        }
+    protected void onRemove() {
+        DiagonCraftSpellsPlugin.getProtectedBlocks().unprotect(flowerPot);
         
         // This isn't perfect: The entity won't retain any of its original
         // characterstics beyond its type. For example, a pink sheep will spawn
         // back in as a white one.
-        if (hasStarted() && flowerPotLocation.getBlock().getType() == Material.FLOWER_POT) {
-            flowerPotLocation.getWorld().spawnEntity(flowerPotLocation, getEntity().getType());
-            flowerPotLocation.getBlock().setType(Material.AIR);
-        }
+        DiagonCraftSpellsPlugin.getBlockRestorer().restore(flowerPot, Material.FLOWER_POT, Material.AIR, getEntity().getType());
     }
     
 }
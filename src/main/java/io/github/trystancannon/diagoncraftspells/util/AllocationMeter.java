@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes of heap allocated by the current thread, where the JVM
+ * supports it. Used to check that hot paths such as projectile ticking do not
+ * produce garbage.
+ * 
+ * @author Trystan Cannon
+ */
+public final class AllocationMeter {
+    
+    /**
+     * The JVM's thread bean, or <code>null</code> if it cannot report the memory
+     * allocated by a thread.
+     */
+    private static final com.sun.management.ThreadMXBean threadBean = findThreadBean();
+    
+    private AllocationMeter() {
+    }
+    
+    /**
+     * @return
+     *          Whether or not the JVM can report the memory allocated by a thread.
+     */
+    public static boolean isSupported() {
+        return threadBean != null;
+    }
+    
+    /**
+     * @return
+     *          The total number of bytes the current thread has allocated since
+     *          it started, or -1 if this is not supported.
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+    
+    private static com.sun.management.ThreadMXBean findThreadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                
+                if (sunBean.isThreadAllocatedMemorySupported()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                    return sunBean;
+                }
+            }
+        // Not every JVM ships the com.sun.management extensions.
+        } catch (LinkageError | UnsupportedOperationException | SecurityException ignored) {
+        }
+        
+        return null;
+    }
+    
+}
@@ -0,0 +1,255 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.util;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.util.Vector;
+
+/**
+ * Exact voxel traversal of the block grid along a ray, in the style of
+ * Amanatides and Woo's "A Fast Voxel Traversal Algorithm."
+ * 
+ * Every block the ray passes through is visited exactly once, in order, so
+ * the first solid block along the ray is never skipped, and no more blocks
+ * are looked up than the ray actually crosses.
+ * 
+ * A ray ends at the first chunk which is not loaded, so a raycast never
+ * causes a chunk to be loaded or generated.
+ * 
+ * @author Trystan Cannon
+ */
+public final class BlockRaycast {
+    
+    /**
+     * The result of a raycast which struck a solid block.
+     */
+    public static final class Hit {
+        
+        /**
+         * The first solid block along the ray.
+         */
+        private final Block block;
+        
+        /**
+         * The face of the block through which the ray entered it.
+         */
+        private final BlockFace face;
+        
+        /**
+         * The distance along the ray at which the block was entered.
+         */
+        private final double distance;
+        
+        private Hit(Block block, BlockFace face, double distance) {
+            this.block = block;
+            this.face = face;
+            this.distance = distance;
+        }
+        
+        /**
+         * @return
+         *          The first solid block along the ray.
+         */
+        public Block getBlock() {
+            return block;
+        }
+        
+        /**
+         * @return
+         *          The face of the block through which the ray entered it.
+         *          <code>BlockFace.SELF</code> if the ray started inside the block.
+         */
+        public BlockFace getFace() {
+            return face;
+        }
+        
+        /**
+         * @return
+         *          The distance along the ray at which the block was entered.
+         */
+        public double getDistance() {
+            return distance;
+        }
+        
+    }
+    
+    private BlockRaycast() {
+    }
+    
+    /**
+     * Casts a ray from the given location in the given direction.
+     * 
+     * @param origin
+     *          The location from which the ray starts.
+     * @param direction
+     *          The direction of the ray. It does not need to be normalized and
+     *          is not modified.
+     * @param maxDistance
+     *          The maximum distance, in blocks, the ray travels.
+     * 
+     * @return
+     *          The first solid block along the ray and the face through which
+     *          it was entered, or <code>null</code> if no solid block lies within
+     *          <code>maxDistance</code>.
+     */
+    public static Hit cast(Location origin, Vector direction, double maxDistance) {
+        return cast(origin.getWorld(), origin.getX(), origin.getY(), origin.getZ(),
+                    direction.getX(), direction.getY(), direction.getZ(), maxDistance);
+    }
+    
+    /**
+     * Casts a ray from the given point in the given direction.
+     * 
+     * @param world
+     *          The world through which the ray travels.
+     * @param originX
+     * @param originY
+     * @param originZ
+     *          The point from which the ray starts.
+     * @param directionX
+     * @param directionY
+     * @param directionZ
+     *          The direction of the ray. It does not need to be normalized.
+     * @param maxDistance
+     *          The maximum distance, in blocks, the ray travels.
+     * 
+     * @return
+     *          The first solid block along the ray and the face through which
+     *          it was entered, or <code>null</code> if no solid block lies within
+     *          <code>maxDistance</code> before the first unloaded chunk.
+     */
+    public static Hit cast(World world, double originX, double originY, double originZ,
+                           double directionX, double directionY, double directionZ, double maxDistance) {
+        double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+        
+        if (length == 0) {
+            return null;
+        }
+        
+        directionX /= length;
+        directionY /= length;
+        directionZ /= length;
+        
+        int x = floor(originX);
+        int y = floor(originY);
+        int z = floor(originZ);
+        
+        int stepX = directionX > 0 ? 1 : (directionX < 0 ? -1 : 0);
+        int stepY = directionY > 0 ? 1 : (directionY < 0 ? -1 : 0);
+        int stepZ = directionZ > 0 ? 1 : (directionZ < 0 ? -1 : 0);
+        
+        // The distance along the ray needed to cross one whole block on each axis.
+        double deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / directionX);
+        double deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / directionY);
+        double deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / directionZ);
+        
+        // The distance along the ray at which the next block boundary on each
+        // axis is crossed.
+        double nextX = boundaryDistance(originX, x, stepX, directionX);
+        double nextY = boundaryDistance(originY, y, stepY, directionY);
+        double nextZ = boundaryDistance(originZ, z, stepZ, directionZ);
+        
+        BlockFace face = BlockFace.SELF;
+        double distance = 0;
+        int maxHeight = world.getMaxHeight();
+        
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        boolean chunkLoaded = world.isChunkLoaded(chunkX, chunkZ);
+        
+        while (distance <= maxDistance) {
+            if ((x >> 4) != chunkX || (z >> 4) != chunkZ) {
+                chunkX = x >> 4;
+                chunkZ = z >> 4;
+                chunkLoaded = world.isChunkLoaded(chunkX, chunkZ);
+            }
+            
+            if (!chunkLoaded) {
+                return null;
+            }
+            
+            if (y >= 0 && y < maxHeight) {
+                // Read the type by id so that a block object is only created
+                // for the block actually struck.
+                if (isSolid(world.getBlockTypeIdAt(x, y, z))) {
+                    return new Hit(world.getBlockAt(x, y, z), face, distance);
+                }
+            // The ray has left the world vertically and will never come back.
+            } else if ((y < 0 && stepY <= 0) || (y >= maxHeight && stepY >= 0)) {
+                return null;
+            }
+            
+            // Step into the neighboring block whose boundary is closest.
+            if (nextX < nextY && nextX < nextZ) {
+                x += stepX;
+                distance = nextX;
+                nextX += deltaX;
+                face = stepX > 0 ? BlockFace.WEST : BlockFace.EAST;
+            } else if (nextY < nextZ) {
+                y += stepY;
+                distance = nextY;
+                nextY += deltaY;
+                face = stepY > 0 ? BlockFace.DOWN : BlockFace.UP;
+            } else {
+                z += stepZ;
+                distance = nextZ;
+                nextZ += deltaZ;
+                face = stepZ > 0 ? BlockFace.NORTH : BlockFace.SOUTH;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * @return
+     *          The distance along a normalized ray from <code>origin</code> to
+     *          the first block boundary crossed on one axis.
+     */
+    private static double boundaryDistance(double origin, int block, int step, double direction) {
+        if (step > 0) {
+            return (block + 1 - origin) / direction;
+        } else if (step < 0) {
+            return (origin - block) / -direction;
+        }
+        
+        return Double.POSITIVE_INFINITY;
+    }
+    
+    @SuppressWarnings("deprecation")
+    private static boolean isSolid(int typeId) {
+        Material type = Material.getMaterial(typeId);
+        return type != null && type.isSolid();
+    }
+    
+    private static int floor(double value) {
+        int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
+    }
+    
+}
@@ -0,0 +1,233 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.util;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+
+/**
+ * Tests a ray against the bounding boxes of the living entities near it.
+ * 
+ * Bukkit does not expose entity bounding boxes, so each box is approximated
+ * from the entity's location and eye height. Minecraft places the eyes of
+ * almost every entity at 85% of its height, and almost every living entity
+ * is about as wide as a player.
+ * 
+ * @author Trystan Cannon
+ */
+public final class EntityRaycast {
+    
+    /**
+     * Half of the assumed width of every entity's bounding box.
+     */
+    public static final double HALF_WIDTH = 0.3;
+    
+    /**
+     * The ratio of an entity's eye height to its full height.
+     */
+    public static final double EYE_HEIGHT_RATIO = 0.85;
+    
+    /**
+     * The result of a raycast which struck a living entity.
+     */
+    public static final class Hit {
+        
+        /**
+         * The first living entity along the ray.
+         */
+        private final LivingEntity entity;
+        
+        /**
+         * The distance along the ray at which the entity's box was entered.
+         */
+        private final double distance;
+        
+        private Hit(LivingEntity entity, double distance) {
+            this.entity = entity;
+            this.distance = distance;
+        }
+        
+        /**
+         * @return
+         *          The first living entity along the ray.
+         */
+        public LivingEntity getEntity() {
+            return entity;
+        }
+        
+        /**
+         * @return
+         *          The distance along the ray at which the entity's box was entered.
+         */
+        public double getDistance() {
+            return distance;
+        }
+        
+    }
+    
+    private EntityRaycast() {
+    }
+    
+    /**
+     * Casts a ray from the given point in the given direction.
+     * 
+     * @param world
+     *          The world through which the ray travels.
+     * @param originX
+     * @param originY
+     * @param originZ
+     *          The point from which the ray starts.
+     * @param directionX
+     * @param directionY
+     * @param directionZ
+     *          The direction of the ray. It does not need to be normalized.
+     * @param maxDistance
+     *          The maximum distance, in blocks, the ray travels.
+     * @param radius
+     *          The radius of the object travelling along the ray. Each box is
+     *          grown by this much on every side.
+     * @param ignored
+     *          An entity which the ray passes through. Can be <code>null</code>.
+     * @param scratch
+     *          A location overwritten while casting, so that none is allocated.
+     * 
+     * @return
+     *          The closest living entity whose box the ray enters, or <code>null</code>
+     *          if no living entity lies within <code>maxDistance</code>.
+     */
+    public static Hit cast(World world, double originX, double originY, double originZ,
+                           double directionX, double directionY, double directionZ,
+                           double maxDistance, double radius, Entity ignored, Location scratch) {
+        double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+        
+        if (length == 0) {
+            return null;
+        }
+        
+        directionX /= length;
+        directionY /= length;
+        directionZ /= length;
+        
+        // Search the box around the whole ray, padded by the size of the
+        // largest box which could touch it.
+        double halfX = Math.abs(directionX) * maxDistance / 2;
+        double halfY = Math.abs(directionY) * maxDistance / 2;
+        double halfZ = Math.abs(directionZ) * maxDistance / 2;
+        double padding = HALF_WIDTH + radius + 2;
+        scratch.setWorld(world);
+        scratch.setX(originX + directionX * maxDistance / 2);
+        scratch.setY(originY + directionY * maxDistance / 2);
+        scratch.setZ(originZ + directionZ * maxDistance / 2);
+        
+        LivingEntity closest = null;
+        double closestDistance = maxDistance;
+        
+        // The search center is no longer needed once the entities are found,
+        // so the scratch location is reused for each entity's location.
+        for (Entity entity : world.getNearbyEntities(scratch, halfX + padding, halfY + padding, halfZ + padding)) {
+            if (!(entity instanceof LivingEntity) || entity == ignored || entity.isDead()) {
+                continue;
+            }
+            
+            LivingEntity livingEntity = (LivingEntity) entity;
+            Location entityLocation = entity.getLocation(scratch);
+            
+            double halfWidth = HALF_WIDTH + radius;
+            double height = livingEntity.getEyeHeight() / EYE_HEIGHT_RATIO;
+            double distance = intersect(originX, originY, originZ, directionX, directionY, directionZ,
+                                        entityLocation.getX() - halfWidth, entityLocation.getY() - radius, entityLocation.getZ() - halfWidth,
+                                        entityLocation.getX() + halfWidth, entityLocation.getY() + height + radius, entityLocation.getZ() + halfWidth);
+            
+            if (distance >= 0 && distance <= closestDistance) {
+                closest = livingEntity;
+                closestDistance = distance;
+            }
+        }
+        
+        return closest != null ? new Hit(closest, closestDistance) : null;
+    }
+    
+    /**
+     * Slab test of a normalized ray against an axis aligned box.
+     * 
+     * @return
+     *          The distance along the ray at which it enters the box, zero if
+     *          it starts inside, or -1 if it misses the box.
+     */
+    private static double intersect(double originX, double originY, double originZ,
+                                    double directionX, double directionY, double directionZ,
+                                    double minX, double minY, double minZ,
+                                    double maxX, double maxY, double maxZ) {
+        double enter = 0;
+        double exit = Double.POSITIVE_INFINITY;
+        
+        // X slab.
+        if (directionX == 0) {
+            if (originX < minX || originX > maxX) {
+                return -1;
+            }
+        } else {
+            double near = (minX - originX) / directionX;
+            double far = (maxX - originX) / directionX;
+            
+            enter = Math.max(enter, Math.min(near, far));
+            exit = Math.min(exit, Math.max(near, far));
+        }
+        
+        // Y slab.
+        if (directionY == 0) {
+            if (originY < minY || originY > maxY) {
+                return -1;
+            }
+        } else {
+            double near = (minY - originY) / directionY;
+            double far = (maxY - originY) / directionY;
+            
+            enter = Math.max(enter, Math.min(near, far));
+            exit = Math.min(exit, Math.max(near, far));
+        }
+        
+        // Z slab.
+        if (directionZ == 0) {
+            if (originZ < minZ || originZ > maxZ) {
+                return -1;
+            }
+        } else {
+            double near = (minZ - originZ) / directionZ;
+            double far = (maxZ - originZ) / directionZ;
+            
+            enter = Math.max(enter, Math.min(near, far));
+            exit = Math.min(exit, Math.max(near, far));
+        }
+        
+        if (enter > exit) {
+            return -1;
+        }
+        
+        return enter;
+    }
+    
+}
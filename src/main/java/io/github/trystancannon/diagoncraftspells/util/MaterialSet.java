@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Trystan Cannon.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.github.trystancannon.diagoncraftspells.util;
+
+import java.util.Arrays;
+import org.bukkit.Material;
+
+/**
+ * An immutable set of materials stored as one bit per <code>Material</code>,
+ * indexed by ordinal.
+ * 
+ * Checking whether a material is in the set is a single bit test with no
+ * hashing, boxing or allocation, so one set can be shared by reference
+ * between everything that filters on it. Sets are never modified in place;
+ * <code>with</code> and <code>without</code> return new sets.
+ * 
+ * @author Trystan Cannon
+ */
+public final class MaterialSet {
+    
+    /**
+     * The number of materials known to the server.
+     */
+    private static final int MATERIAL_COUNT = Material.values().length;
+    
+    /**
+     * The set containing no materials.
+     */
+    public static final MaterialSet EMPTY = new MaterialSet(new long[(MATERIAL_COUNT + 63) / 64], 0);
+    
+    /**
+     * One bit per material, set if the material is in the set.
+     */
+    private final long[] bits;
+    
+    /**
+     * The number of materials in the set.
+     */
+    private final int size;
+    
+    private MaterialSet(long[] bits, int size) {
+        this.bits = bits;
+        this.size = size;
+    }
+    
+    /**
+     * @param materials
+     *          The materials in the set.
+     * @return
+     *          A set containing exactly the given materials.
+     */
+    public static MaterialSet of(Material... materials) {
+        MaterialSet set = EMPTY;
+        
+        for (Material material : materials) {
+            set = set.with(material);
+        }
+        
+        return set;
+    }
+    
+    /**
+     * @param material
+     *          The material to check. Can be <code>null</code>.
+     * @return
+     *          Whether or not the material is in the set.
+     */
+    public boolean contains(Material material) {
+        if (material == null) {
+            return false;
+        }
+        
+        int ordinal = material.ordinal();
+        return (bits[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+    
+    /**
+     * @param material
+     *          The material to add.
+     * @return
+     *          A set containing every material in this set and the given one.
+     *          This set if it already contains the material.
+     */
+    public MaterialSet with(Material material) {
+        if (contains(material)) {
+            return this;
+        }
+        
+        long[] newBits = Arrays.copyOf(bits, bits.length);
+        int ordinal = material.ordinal();
+        
+        newBits[ordinal >>> 6] |= 1L << ordinal;
+        return new MaterialSet(newBits, size + 1);
+    }
+    
+    /**
+     * @param material
+     *          The material to remove.
+     * @return
+     *          A set containing every material in this set but the given one.
+     *          This set if it does not contain the material.
+     */
+    public MaterialSet without(Material material) {
+        if (!contains(material)) {
+            return this;
+        }
+        
+        long[] newBits = Arrays.copyOf(bits, bits.length);
+        int ordinal = material.ordinal();
+        
+        newBits[ordinal >>> 6] &= ~(1L << ordinal);
+        return new MaterialSet(newBits, size - 1);
+    }
+    
+    /**
+     * @return
+     *          The number of materials in the set.
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @return
+     *          Whether or not the set contains no materials.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MaterialSet && Arrays.equals(bits, ((MaterialSet) other).bits);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+    
+}
@@ -121,7 +121,18 @@ public final class Wand {
      *          <code>true</code> if the item is a wand.
      */
     public static boolean isItemWand(ItemStack stack) {
-        return stack != null && stack.getItemMeta() != null && stack.getItemMeta().getDisplayName() != null && stack.getItemMeta().getDisplayName().equals("Wand");
+        return stack != null && stack.getType() == MATERIAL && stack.hasItemMeta() && isWandMeta(stack.getItemMeta());
+    }
+    
+    /**
+     * @param meta
+     *          Meta data of an item made of <code>MATERIAL</code>.
+     *
+     * @return
+     *          <code>true</code> if the meta data is that of a wand.
+     */
+    public static boolean isWandMeta(ItemMeta meta) {
+        return meta != null && "Wand".equals(meta.getDisplayName());
     }
     
 }